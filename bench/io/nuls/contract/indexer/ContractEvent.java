@@ -0,0 +1,57 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.indexer;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Event;
+
+/**
+ * 某个合约在某个高度发出的事件
+ */
+public class ContractEvent {
+
+    // 发出事件的合约
+    private final Address contract;
+    // 事件所在高度
+    private final long height;
+    private final Event event;
+
+    public ContractEvent(Address contract, long height, Event event) {
+        this.contract = contract;
+        this.height = height;
+        this.event = event;
+    }
+
+    public Address getContract() {
+        return contract;
+    }
+
+    public long getHeight() {
+        return height;
+    }
+
+    public Event getEvent() {
+        return event;
+    }
+}
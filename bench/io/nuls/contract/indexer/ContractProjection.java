@@ -0,0 +1,128 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.indexer;
+
+import io.nuls.contract.model.MiningInfo;
+import io.nuls.contract.ownership.Ownable;
+import io.nuls.contract.pocm.DepositEvent;
+import io.nuls.contract.pocm.ImportUserEvent;
+import io.nuls.contract.pocm.QuitEvent;
+import io.nuls.contract.pocm.ReceiveEvent;
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Event;
+import io.nuls.contract.token.Token;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.nuls.contract.util.PocmUtil.encodeMiningInfo;
+
+/**
+ * 一个合约的投影：余额、授权额度、合约拥有者和用户挖矿信息，由事件按顺序构建，只由该合约的 worker 访问
+ * 投影的键为 balance/地址、allowance/授权人/被授权人、owner、user/地址，挖矿信息的编码同 exportUsers
+ */
+public class ContractProjection {
+
+    private final Map<Address, BigInteger> balances = new HashMap<Address, BigInteger>();
+    private final Map<Address, MiningInfo> users = new HashMap<Address, MiningInfo>();
+
+    /**
+     *  应用一个事件，变更写入 batch
+     */
+    public void apply(long height, Event event, ProjectionBatch batch) {
+        if (event instanceof Token.TransferEvent) {
+            Token.TransferEvent transfer = (Token.TransferEvent) event;
+            if (transfer.getFrom() != null) {
+                addBalance(transfer.getFrom(), transfer.getValue().negate(), batch);
+            }
+            if (transfer.getTo() != null) {
+                addBalance(transfer.getTo(), transfer.getValue(), batch);
+            }
+        } else if (event instanceof Token.ApprovalEvent) {
+            Token.ApprovalEvent approval = (Token.ApprovalEvent) event;
+            batch.put("allowance/" + approval.getOwner() + "/" + approval.getSpender(),
+                    approval.getValue().signum() == 0 ? null : approval.getValue().toString());
+        } else if (event instanceof Ownable.OwnershipTransferredEvent) {
+            Address newOwner = ((Ownable.OwnershipTransferredEvent) event).getNewOwner();
+            batch.put("owner", newOwner == null ? null : newOwner.toString());
+        } else if (event instanceof Ownable.OwnershipRenouncedEvent) {
+            batch.put("owner", null);
+        } else if (event instanceof DepositEvent) {
+            DepositEvent deposit = (DepositEvent) event;
+            MiningInfo info = users.get(deposit.getUser());
+            if (info == null) {
+                info = new MiningInfo();
+                info.setDepositAmount(BigInteger.ZERO);
+                info.setDepositHeight(height);
+                users.put(deposit.getUser(), info);
+            }
+            info.setDepositAmount(info.getDepositAmount().add(deposit.getValue()));
+            info.setDepositChangeHeight(height);
+            putUser(deposit.getUser(), info, batch);
+        } else if (event instanceof ImportUserEvent) {
+            ImportUserEvent imported = (ImportUserEvent) event;
+            MiningInfo info = new MiningInfo();
+            info.setDepositAmount(imported.getDepositAmount());
+            info.setDepositHeight(imported.getDepositHeight());
+            info.setTotalMining(imported.getTotalMining());
+            info.setReceivedMining(imported.getReceivedMining());
+            info.setMiningCount(imported.getMiningCount());
+            info.setNextMiningHeight(imported.getNextMiningHeight());
+            info.setDepositChangeHeight(imported.getDepositChangeHeight());
+            users.put(imported.getUser(), info);
+            putUser(imported.getUser(), info, batch);
+        } else if (event instanceof ReceiveEvent) {
+            ReceiveEvent receive = (ReceiveEvent) event;
+            MiningInfo info = users.get(receive.getUser());
+            if (info != null) {
+                info.setTotalMining(receive.getTotalMining());
+                info.setReceivedMining(receive.getReceivedMining());
+                info.setMiningCount(receive.getMiningCount());
+                info.setNextMiningHeight(receive.getNextMiningHeight());
+                putUser(receive.getUser(), info, batch);
+            }
+        } else if (event instanceof QuitEvent) {
+            Address user = ((QuitEvent) event).getUser();
+            users.remove(user);
+            batch.put("user/" + user, null);
+        }
+    }
+
+    private void addBalance(Address address, BigInteger value, ProjectionBatch batch) {
+        BigInteger balance = balances.get(address);
+        balance = balance == null ? value : balance.add(value);
+        if (balance.signum() == 0) {
+            balances.remove(address);
+            batch.put("balance/" + address, null);
+        } else {
+            balances.put(address, balance);
+            batch.put("balance/" + address, balance.toString());
+        }
+    }
+
+    private void putUser(Address user, MiningInfo info, ProjectionBatch batch) {
+        batch.put("user/" + user, encodeMiningInfo(info));
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.indexer;
+
+import io.nuls.contract.sdk.Address;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 多合约的事件索引流水线，不属于合约代码，不随合约打包
+ * 每个合约一个 worker，运行在虚拟线程上，按收到的顺序处理该合约的事件，不同合约的 worker 并行执行
+ * 每个 worker 有一个有界队列，队列满时 onBlock 阻塞，使读取区块的速度不超过索引的速度
+ * 每个合约每个区块的变更合并为一个 ProjectionBatch 写入存储
+ */
+public class EventIndexer implements AutoCloseable {
+
+    // 关闭 worker 的标记
+    private static final List<ContractEvent> STOP = new ArrayList<ContractEvent>();
+
+    private final ProjectionStore store;
+    // 每个 worker 的队列可容纳的区块数量
+    private final int queueCapacity;
+    private final Map<Address, Worker> workers = new ConcurrentHashMap<Address, Worker>();
+    private volatile Exception failure;
+
+    public EventIndexer(ProjectionStore store, int queueCapacity) {
+        this.store = store;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     *  提交一个区块中的全部事件，区块须按高度顺序提交，events 为该区块中所有合约的事件，按发出的顺序排列
+     */
+    public void onBlock(long height, List<ContractEvent> events) throws Exception {
+        checkFailure();
+        Map<Address, List<ContractEvent>> byContract = new LinkedHashMap<Address, List<ContractEvent>>();
+        for (ContractEvent event : events) {
+            byContract.computeIfAbsent(event.getContract(), c -> new ArrayList<ContractEvent>()).add(event);
+        }
+        for (Map.Entry<Address, List<ContractEvent>> entry : byContract.entrySet()) {
+            workers.computeIfAbsent(entry.getKey(), Worker::new).queue.put(entry.getValue());
+        }
+    }
+
+    /**
+     *  处理完已提交的全部区块后停止所有 worker，有 worker 失败时抛出第一个失败
+     */
+    @Override
+    public void close() throws Exception {
+        for (Worker worker : workers.values()) {
+            worker.queue.put(STOP);
+        }
+        for (Worker worker : workers.values()) {
+            worker.thread.join();
+        }
+        checkFailure();
+    }
+
+    public int getWorkerCount() {
+        return workers.size();
+    }
+
+    private void checkFailure() throws Exception {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final Address contract;
+        private final BlockingQueue<List<ContractEvent>> queue = new ArrayBlockingQueue<List<ContractEvent>>(queueCapacity);
+        private final ContractProjection projection = new ContractProjection();
+        private final Thread thread;
+
+        Worker(Address contract) {
+            this.contract = contract;
+            this.thread = Thread.ofVirtual().name("indexer-" + contract).start(this);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    List<ContractEvent> events = queue.take();
+                    if (events == STOP) {
+                        return;
+                    }
+                    ProjectionBatch batch = new ProjectionBatch(contract, events.get(0).getHeight());
+                    for (ContractEvent event : events) {
+                        projection.apply(event.getHeight(), event.getEvent(), batch);
+                    }
+                    store.write(batch);
+                }
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                }
+                // 失败后继续取出队列中的区块，避免 onBlock 和 close 一直阻塞
+                drain();
+            }
+        }
+
+        private void drain() {
+            try {
+                while (queue.take() != STOP) {
+                    // 丢弃
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
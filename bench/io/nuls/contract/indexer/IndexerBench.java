@@ -0,0 +1,209 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.indexer;
+
+import io.nuls.contract.pocm.Pocm;
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Block;
+import io.nuls.contract.sdk.LocalNode;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 比较逐个事件串行索引与 EventIndexer 流水线的吞吐量，并核对两者得到的投影一致，不属于合约代码，不随合约打包
+ * 事件由多个 Pocm 合约通过 LocalNode 执行随机调用产生；存储的每次写入模拟一次数据库往返
+ * 运行方式（在项目根目录，需要 JDK 21）：
+ * javac -cp lib/sdk-contract-vm-1.1.4.6.jar -d out $(find src bench -name '*.java')
+ * java -cp out:lib/sdk-contract-vm-1.1.4.6.jar io.nuls.contract.indexer.IndexerBench [--contracts 32] [--blocks 500]
+ *      [--calls-per-block 100] [--write-latency-us 100] [--queue 16]
+ */
+public class IndexerBench {
+
+    private static final BigInteger NA_PER_NULS = BigInteger.TEN.pow(8);
+    private static final int WALLETS = 200;
+    private static final int LOCKED = 20;
+
+    private final Random random = new Random(1);
+    private final List<List<ContractEvent>> blocks = new ArrayList<List<ContractEvent>>();
+    private List<ContractEvent> currentBlock;
+    // 正在执行调用的合约，事件回调据此标记事件来源
+    private Address currentContract;
+
+    public static void main(String[] args) throws Exception {
+        int contracts = 32;
+        int blockCount = 500;
+        int callsPerBlock = 100;
+        long writeLatencyMicros = 100;
+        int queueCapacity = 16;
+        for (int i = 0; i < args.length; i += 2) {
+            String value = args[i + 1];
+            if ("--contracts".equals(args[i])) {
+                contracts = Integer.parseInt(value);
+            } else if ("--blocks".equals(args[i])) {
+                blockCount = Integer.parseInt(value);
+            } else if ("--calls-per-block".equals(args[i])) {
+                callsPerBlock = Integer.parseInt(value);
+            } else if ("--write-latency-us".equals(args[i])) {
+                writeLatencyMicros = Long.parseLong(value);
+            } else if ("--queue".equals(args[i])) {
+                queueCapacity = Integer.parseInt(value);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        IndexerBench bench = new IndexerBench();
+        List<Address> addresses = bench.generate(contracts, blockCount, callsPerBlock);
+        long eventCount = 0;
+        for (List<ContractEvent> block : bench.blocks) {
+            eventCount += block.size();
+        }
+        System.out.printf("%d contracts, %d blocks, %d events, write latency %d us%n",
+                contracts, blockCount, eventCount, writeLatencyMicros);
+
+        MemoryProjectionStore serialStore = new MemoryProjectionStore(writeLatencyMicros);
+        long start = System.nanoTime();
+        bench.indexSerially(serialStore);
+        report("serial, per event", eventCount, serialStore.getWriteCount(), System.nanoTime() - start);
+
+        MemoryProjectionStore pipelineStore = new MemoryProjectionStore(writeLatencyMicros);
+        start = System.nanoTime();
+        try (EventIndexer indexer = new EventIndexer(pipelineStore, queueCapacity)) {
+            long height = 0;
+            for (List<ContractEvent> block : bench.blocks) {
+                indexer.onBlock(++height, block);
+            }
+        }
+        report("pipeline, per block", eventCount, pipelineStore.getWriteCount(), System.nanoTime() - start);
+
+        int mismatched = 0;
+        for (Address contract : addresses) {
+            if (!serialStore.projection(contract).equals(pipelineStore.projection(contract))) {
+                mismatched++;
+                System.out.println("projection of " + contract + " differs");
+            }
+        }
+        System.out.println(mismatched == 0 ? "projections match" : mismatched + " projections differ");
+        System.exit(mismatched == 0 ? 0 : 1);
+    }
+
+    /**
+     *  部署合约并执行随机调用，按区块记录各合约发出的事件，返回合约地址
+     */
+    private List<Address> generate(int contractCount, int blockCount, int callsPerBlock) throws Exception {
+        LocalNode node = new LocalNode(1);
+        node.setEventListener(event -> currentBlock.add(new ContractEvent(currentContract, Block.number(), event)));
+        Address owner = new Address("owner");
+        Address[] wallets = new Address[WALLETS];
+        for (int i = 0; i < WALLETS; i++) {
+            wallets[i] = new Address("wallet" + i);
+        }
+        List<Address> addresses = new ArrayList<Address>();
+        List<Pocm> contracts = new ArrayList<Pocm>();
+        Map<Address, long[]> depositHeights = new HashMap<Address, long[]>();
+        currentBlock = new ArrayList<ContractEvent>();
+        for (int i = 0; i < contractCount; i++) {
+            currentContract = new Address("contract" + i);
+            addresses.add(currentContract);
+            contracts.add(node.call(owner, BigInteger.ZERO, () -> new Pocm("Index", "IDX", BigInteger.valueOf(1000000), 8,
+                    new BigDecimal("0.5"), 10, 500, BigDecimal.ONE, LOCKED, Integer.MAX_VALUE, false)));
+            long[] heights = new long[WALLETS];
+            Arrays.fill(heights, -1);
+            depositHeights.put(currentContract, heights);
+        }
+        blocks.add(currentBlock);
+        for (int b = 1; b < blockCount; b++) {
+            node.nextBlock();
+            currentBlock = new ArrayList<ContractEvent>();
+            for (int i = 0; i < callsPerBlock; i++) {
+                int index = random.nextInt(contractCount);
+                currentContract = addresses.get(index);
+                randomCall(node, contracts.get(index), owner, wallets, depositHeights.get(currentContract));
+            }
+            blocks.add(currentBlock);
+        }
+        return addresses;
+    }
+
+    private void randomCall(LocalNode node, Pocm pocm, Address owner, Address[] wallets, long[] depositHeights) throws Exception {
+        int index = random.nextInt(wallets.length);
+        Address wallet = wallets[index];
+        int op = random.nextInt(20);
+        if (op == 0) {
+            // 合约拥有者在 owner 和第一个钱包之间来回转让
+            Address current = pocm.viewOwner();
+            Address next = current.equals(owner) ? wallets[0] : owner;
+            node.call(current, BigInteger.ZERO, () -> {
+                pocm.transferOwnership(next);
+                return null;
+            });
+        } else if (depositHeights[index] < 0) {
+            BigInteger value = BigInteger.valueOf(2 + random.nextInt(99)).multiply(NA_PER_NULS);
+            node.call(wallet, value, () -> pocm.deposit());
+            depositHeights[index] = Block.number();
+        } else if (op < 3 && Block.number() > depositHeights[index] + LOCKED) {
+            node.call(wallet, BigInteger.ZERO, () -> pocm.quit());
+            depositHeights[index] = -1;
+        } else if (op < 10) {
+            node.call(wallet, BigInteger.ZERO, () -> pocm.receive());
+        } else if (op < 14) {
+            Address spender = wallets[random.nextInt(wallets.length)];
+            BigInteger value = BigInteger.valueOf(random.nextInt(1000));
+            node.call(wallet, BigInteger.ZERO, () -> pocm.approve(spender, value));
+        } else {
+            BigInteger balance = pocm.balanceOf(wallet);
+            if (balance.signum() > 0) {
+                Address to = wallets[random.nextInt(wallets.length)];
+                BigInteger value = balance.divide(BigInteger.valueOf(2 + random.nextInt(10)));
+                node.call(wallet, BigInteger.ZERO, () -> pocm.transfer(to, value));
+            }
+        }
+    }
+
+    /**
+     *  单线程逐个事件处理，每个事件写入一次存储
+     */
+    private void indexSerially(ProjectionStore store) throws Exception {
+        Map<Address, ContractProjection> projections = new HashMap<Address, ContractProjection>();
+        for (List<ContractEvent> block : blocks) {
+            for (ContractEvent event : block) {
+                ContractProjection projection = projections.computeIfAbsent(event.getContract(), c -> new ContractProjection());
+                ProjectionBatch batch = new ProjectionBatch(event.getContract(), event.getHeight());
+                projection.apply(event.getHeight(), event.getEvent(), batch);
+                store.write(batch);
+            }
+        }
+    }
+
+    private static void report(String name, long events, long writes, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-20s %8d writes %8.2f s %10.0f events/s%n", name, writes, seconds, events / seconds);
+    }
+}
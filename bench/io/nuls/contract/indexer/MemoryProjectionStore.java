@@ -0,0 +1,75 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.indexer;
+
+import io.nuls.contract.sdk.Address;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内存中的投影存储，每次写入可以模拟一次数据库往返的耗时
+ */
+public class MemoryProjectionStore implements ProjectionStore {
+
+    private final Map<Address, Map<String, String>> projections = new ConcurrentHashMap<Address, Map<String, String>>();
+    // 每次写入的模拟耗时，微秒
+    private final long writeLatencyMicros;
+    private final AtomicLong writeCount = new AtomicLong();
+
+    public MemoryProjectionStore(long writeLatencyMicros) {
+        this.writeLatencyMicros = writeLatencyMicros;
+    }
+
+    @Override
+    public void write(ProjectionBatch batch) throws InterruptedException {
+        if (writeLatencyMicros > 0) {
+            TimeUnit.MICROSECONDS.sleep(writeLatencyMicros);
+        }
+        Map<String, String> projection = projections.computeIfAbsent(batch.getContract(), c -> new ConcurrentHashMap<String, String>());
+        for (Map.Entry<String, String> write : batch.getWrites().entrySet()) {
+            if (write.getValue() == null) {
+                projection.remove(write.getKey());
+            } else {
+                projection.put(write.getKey(), write.getValue());
+            }
+        }
+        writeCount.incrementAndGet();
+    }
+
+    public long getWriteCount() {
+        return writeCount.get();
+    }
+
+    /**
+     *  某个合约的投影，按键排序
+     */
+    public Map<String, String> projection(Address contract) {
+        Map<String, String> projection = projections.get(contract);
+        return projection == null ? new TreeMap<String, String>() : new TreeMap<String, String>(projection);
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.indexer;
+
+import io.nuls.contract.sdk.Address;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 一个合约在一个区块中的投影变更，同一个键只保留最后的值，值为null表示删除
+ */
+public class ProjectionBatch {
+
+    private final Address contract;
+    private final long height;
+    private final Map<String, String> writes = new LinkedHashMap<String, String>();
+
+    public ProjectionBatch(Address contract, long height) {
+        this.contract = contract;
+        this.height = height;
+    }
+
+    public void put(String key, String value) {
+        writes.put(key, value);
+    }
+
+    public Address getContract() {
+        return contract;
+    }
+
+    public long getHeight() {
+        return height;
+    }
+
+    public Map<String, String> getWrites() {
+        return writes;
+    }
+}
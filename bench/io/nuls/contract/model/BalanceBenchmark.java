@@ -0,0 +1,170 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.LocalNode;
+import io.nuls.contract.token.SimpleToken;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static io.nuls.contract.sdk.Utils.require;
+
+/**
+ * 比较 BigInteger 余额与 Balance 余额每次转账的内存分配量和耗时，不属于合约代码，不随合约打包
+ * Balance 余额直接调用 SimpleToken 的 subtractBalance/addBalance，包括其中的检查和默克尔树变更记录，
+ * 需要 bench 中的 SDK 替身（见 LocalNode）
+ * 运行方式（在项目根目录）：
+ * javac -cp lib/sdk-contract-vm-1.1.4.6.jar -d out $(find src bench -name '*.java')
+ * java -cp out:lib/sdk-contract-vm-1.1.4.6.jar io.nuls.contract.model.BalanceBenchmark
+ */
+public class BalanceBenchmark {
+
+    private static final int ACCOUNTS = 10000;
+    private static final int TRANSFERS = 2000000;
+    private static final int ROUNDS = 5;
+    private static final BigInteger INITIAL_BALANCE = BigInteger.TEN.pow(16);
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final LocalNode node = new LocalNode(1);
+    private final Address creator = new Address("creator");
+    private final Address[] accounts = new Address[ACCOUNTS];
+    private final int[] froms = new int[TRANSFERS];
+    private final int[] tos = new int[TRANSFERS];
+    private final BigInteger[] values = new BigInteger[TRANSFERS];
+
+    private final Map<Address, BigInteger> bigIntegerBalances = new HashMap<Address, BigInteger>();
+    private BenchmarkToken token;
+
+    public static void main(String[] args) throws Exception {
+        BalanceBenchmark benchmark = new BalanceBenchmark();
+        for (int round = 1; round <= ROUNDS; round++) {
+            benchmark.reset();
+            report(round, "BigInteger", benchmark.measure(false));
+            report(round, "SimpleToken(Balance)", benchmark.measure(true));
+        }
+    }
+
+    private BalanceBenchmark() {
+        Random random = new Random(1);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[i] = new Address("account" + i);
+        }
+        for (int i = 0; i < TRANSFERS; i++) {
+            froms[i] = random.nextInt(ACCOUNTS);
+            tos[i] = random.nextInt(ACCOUNTS);
+            values[i] = BigInteger.valueOf(1 + random.nextInt(1000000));
+        }
+    }
+
+    /**
+     *  每轮重新部署token，由部署者给每个账户转入初始余额，与 BigInteger 余额的初始状态一致
+     */
+    private void reset() throws Exception {
+        BigInteger initialAmount = INITIAL_BALANCE.multiply(BigInteger.valueOf(ACCOUNTS));
+        token = node.call(creator, BigInteger.ZERO, () -> new BenchmarkToken(initialAmount));
+        for (Address account : accounts) {
+            bigIntegerBalances.put(account, INITIAL_BALANCE);
+            token.move(creator, account, INITIAL_BALANCE);
+        }
+    }
+
+    private long[] measure(boolean simpleToken) {
+        long threadId = Thread.currentThread().getId();
+        long bytes = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        long nanos = System.nanoTime();
+        for (int i = 0; i < TRANSFERS; i++) {
+            Address from = accounts[froms[i]];
+            Address to = accounts[tos[i]];
+            if (simpleToken) {
+                token.move(from, to, values[i]);
+            } else {
+                transferBigInteger(from, to, values[i]);
+            }
+        }
+        nanos = System.nanoTime() - nanos;
+        bytes = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - bytes;
+        return new long[]{bytes, nanos};
+    }
+
+    /**
+     *  改用 Balance 之前 SimpleToken 的 subtractBalance/addBalance：余额以不可变的 BigInteger 保存在map中，
+     *  每次修改都先读出余额、检查后写回新的 BigInteger
+     */
+    private void transferBigInteger(Address from, Address to, BigInteger value) {
+        BigInteger fromBalance = bigIntegerBalanceOf(from);
+        check(fromBalance, value, "Insufficient balance of token.");
+        bigIntegerBalances.put(from, fromBalance.subtract(value));
+
+        BigInteger toBalance = bigIntegerBalanceOf(to);
+        check(value, "The value must be greater than or equal to 0.");
+        check(toBalance);
+        bigIntegerBalances.put(to, toBalance.add(value));
+    }
+
+    private BigInteger bigIntegerBalanceOf(Address owner) {
+        BigInteger balance = bigIntegerBalances.get(owner);
+        return balance == null ? BigInteger.ZERO : balance;
+    }
+
+    private static void check(BigInteger value) {
+        require(value != null && value.compareTo(BigInteger.ZERO) >= 0);
+    }
+
+    private static void check(BigInteger value, String msg) {
+        require(value != null && value.compareTo(BigInteger.ZERO) >= 0, msg);
+    }
+
+    private static void check(BigInteger value1, BigInteger value2, String msg) {
+        check(value1);
+        check(value2);
+        require(value1.compareTo(value2) >= 0, msg);
+    }
+
+    private static void report(int round, String name, long[] result) {
+        System.out.println(String.format("round %d %-22s %8.2f bytes/transfer %8.2f ns/transfer",
+                round, name, (double) result[0] / TRANSFERS, (double) result[1] / TRANSFERS));
+    }
+
+    /**
+     *  只暴露 SimpleToken 的余额修改，不经过 transfer 的事件和调用统计，与 BigInteger 余额比较的是同一段逻辑
+     */
+    private static class BenchmarkToken extends SimpleToken {
+
+        BenchmarkToken(BigInteger initialAmount) {
+            super("Benchmark", "BENCH", initialAmount, 0, false);
+        }
+
+        void move(Address from, Address to, BigInteger value) {
+            subtractBalance(from, value);
+            addBalance(to, value);
+        }
+    }
+}
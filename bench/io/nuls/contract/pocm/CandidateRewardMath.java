@@ -0,0 +1,129 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.model.MiningInfo;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * 候选实现示例：价格按减半次数直接计算，奖励按减半区间整段累加，不再逐个发放周期循环
+ * 替换合约中的实现之前，先用 RewardMathReplay 与参考实现对比
+ */
+public class CandidateRewardMath implements RewardMath {
+
+    public static final Factory FACTORY = new Factory() {
+        @Override
+        public RewardMath create(long createHeight, BigDecimal initialPrice, int awardingCycle, int rewardHalvingCycle, int decimals) {
+            return new CandidateRewardMath(createHeight, initialPrice, awardingCycle, rewardHalvingCycle, decimals);
+        }
+    };
+
+    private static final BigDecimal FIVE = BigDecimal.valueOf(5L);
+
+    private final long createHeight;
+    private final BigDecimal initialPrice;
+    private final long awardingInterval;
+    private final long halvingInterval;
+    private final int decimals;
+
+    public CandidateRewardMath(long createHeight, BigDecimal initialPrice, int awardingCycle, int rewardHalvingCycle, int decimals) {
+        this.createHeight = createHeight;
+        this.initialPrice = initialPrice;
+        this.awardingInterval = awardingCycle + 1L;
+        this.halvingInterval = rewardHalvingCycle + 1L;
+        this.decimals = decimals;
+    }
+
+    @Override
+    public BigInteger calcMining(MiningInfo miningInfo, long currentHeight) {
+        long nextMiningHeight = miningInfo.getNextMiningHeight();
+        if (nextMiningHeight == 0) {
+            nextMiningHeight = miningInfo.getDepositHeight() + awardingInterval;
+        }
+        BigDecimal depositAmountNULS = toNuls(miningInfo.getDepositAmount());
+        BigInteger mining = BigInteger.ZERO;
+        int cycles = 0;
+        while (nextMiningHeight <= currentHeight) {
+            // 同一减半区间内每个周期的奖励相同，整段累加
+            long halvings = halvings(nextMiningHeight);
+            long segmentEnd = createHeight + (halvings + 1) * halvingInterval - 1;
+            long lastHeight = segmentEnd < currentHeight ? segmentEnd : currentHeight;
+            long count = (lastHeight - nextMiningHeight) / awardingInterval + 1;
+            BigInteger perCycle = depositAmountNULS.multiply(price(halvings)).scaleByPowerOfTen(decimals).toBigInteger();
+            mining = mining.add(perCycle.multiply(BigInteger.valueOf(count)));
+            cycles += count;
+            nextMiningHeight += count * awardingInterval;
+        }
+        miningInfo.setMiningCount(miningInfo.getMiningCount() + cycles);
+        miningInfo.setNextMiningHeight(nextMiningHeight);
+        return mining;
+    }
+
+    @Override
+    public BigDecimal calcPrice(long currentHeight) {
+        return price(halvings(currentHeight));
+    }
+
+    @Override
+    public boolean checkMaximumDecimals(BigDecimal price, int decimals) {
+        return price.movePointRight(decimals + 1).toBigInteger().remainder(BigInteger.TEN).signum() == 0;
+    }
+
+    @Override
+    public BigDecimal toNuls(BigInteger na) {
+        return new BigDecimal(na, 8);
+    }
+
+    @Override
+    public BigInteger toNa(BigDecimal nuls) {
+        return nuls.movePointRight(8).toBigInteger();
+    }
+
+    /**
+     *  截至指定高度（含）的减半次数
+     */
+    private long halvings(long height) {
+        if (height < createHeight + halvingInterval) {
+            return 0;
+        }
+        return (height - createHeight) / halvingInterval;
+    }
+
+    /**
+     *  减半 halvings 次后的价格，scale 与逐次除以2的结果一致
+     */
+    private BigDecimal price(long halvings) {
+        if (halvings == 0) {
+            return initialPrice;
+        }
+        int n = (int) halvings;
+        BigDecimal price = initialPrice.multiply(FIVE.pow(n)).movePointLeft(n).stripTrailingZeros();
+        if (price.scale() < initialPrice.scale()) {
+            price = price.setScale(initialPrice.scale());
+        }
+        return price;
+    }
+}
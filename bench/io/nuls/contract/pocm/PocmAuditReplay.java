@@ -0,0 +1,269 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Block;
+import io.nuls.contract.sdk.Event;
+import io.nuls.contract.sdk.LocalNode;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * PocmAuditor 的回放检查：通过 LocalNode 执行随机的导入、抵押、追加抵押、领取、退出和转账，事件实时交给审计，
+ * 每个区块结束时与合约视图核对；之后重放记录的事件测量审计吞吐量，并篡改一个抵押事件确认能在当前区块发现，
+ * 不属于合约代码，不随合约打包
+ * 运行方式（在项目根目录，需要 JDK 21）：
+ * javac -cp lib/sdk-contract-vm-1.1.4.6.jar -d out $(find src bench -name '*.java')
+ * java -cp out:lib/sdk-contract-vm-1.1.4.6.jar io.nuls.contract.pocm.PocmAuditReplay [--blocks 2000] [--calls-per-block 50] [--wallets 500]
+ */
+public class PocmAuditReplay {
+
+    private static final BigInteger NA_PER_NULS = BigInteger.TEN.pow(8);
+    private static final int LOCKED = 20;
+    private static final int REPLAY_ROUNDS = 20;
+
+    private final List<RecordedEvent> events = new ArrayList<RecordedEvent>();
+    private final Random random = new Random(1);
+
+    private LocalNode node;
+    private Pocm pocm;
+    private Address[] wallets;
+    // 各钱包的抵押高度，未抵押时为 -1
+    private long[] depositHeights;
+
+    public static void main(String[] args) throws Exception {
+        int blocks = 2000;
+        int callsPerBlock = 50;
+        int walletCount = 500;
+        for (int i = 0; i < args.length; i += 2) {
+            if ("--blocks".equals(args[i])) {
+                blocks = Integer.parseInt(args[i + 1]);
+            } else if ("--calls-per-block".equals(args[i])) {
+                callsPerBlock = Integer.parseInt(args[i + 1]);
+            } else if ("--wallets".equals(args[i])) {
+                walletCount = Integer.parseInt(args[i + 1]);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        PocmAuditReplay replay = new PocmAuditReplay();
+        long divergences = replay.runLive(blocks, callsPerBlock, walletCount);
+        replay.measureReplay();
+        boolean flagged = replay.checkTampered();
+        System.exit(divergences == 0 && flagged ? 0 : 1);
+    }
+
+    /**
+     *  执行随机调用，审计实时消费事件并在每个区块结束时核对，返回不一致的数量
+     */
+    private long runLive(int blocks, int callsPerBlock, int walletCount) throws Exception {
+        PocmAuditor auditor = new PocmAuditor(message -> System.out.println("live: " + message));
+        node = new LocalNode(1);
+        node.setEventListener(event -> {
+            events.add(new RecordedEvent(Block.number(), event));
+            auditor.onEvent(Block.number(), event);
+        });
+        Address owner = new Address("owner");
+        pocm = node.call(owner, BigInteger.ZERO, () -> new Pocm("Audit", "AUDIT", BigInteger.valueOf(1000000), 8,
+                new BigDecimal("0.5"), 10, 500, BigDecimal.ONE, LOCKED, Integer.MAX_VALUE, true));
+        wallets = new Address[walletCount];
+        depositHeights = new long[walletCount];
+        for (int i = 0; i < walletCount; i++) {
+            wallets[i] = new Address("wallet" + i);
+            depositHeights[i] = -1;
+        }
+        importSome(owner);
+        check(auditor);
+
+        long start = System.nanoTime();
+        for (int block = 0; block < blocks; block++) {
+            node.nextBlock();
+            for (int i = 0; i < callsPerBlock; i++) {
+                randomCall();
+            }
+            check(auditor);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("live: %d blocks, %d events, %d divergences, %d accounts audited, %.1f s%n",
+                blocks, auditor.getEventCount(), auditor.getDivergenceCount(), auditor.getAccountCount(), seconds);
+        return auditor.getDivergenceCount();
+    }
+
+    /**
+     *  迁移导入前 10 个钱包的抵押和另外 10 个钱包的余额
+     */
+    private void importSome(Address owner) throws Exception {
+        StringBuilder users = new StringBuilder();
+        BigInteger importedDeposit = BigInteger.ZERO;
+        for (int i = 0; i < 10 && i < wallets.length; i++) {
+            BigInteger deposit = depositValue();
+            importedDeposit = importedDeposit.add(deposit);
+            if (users.length() > 0) {
+                users.append(';');
+            }
+            users.append(wallets[i]).append(',').append(deposit).append(",1,").append(i * 1000).append(',').append(i * 1000)
+                    .append(",0,0,1");
+            depositHeights[i] = 1;
+        }
+        StringBuilder balances = new StringBuilder();
+        for (int i = 10; i < 20 && i < wallets.length; i++) {
+            if (balances.length() > 0) {
+                balances.append(';');
+            }
+            balances.append(wallets[i]).append(',').append(depositValue());
+        }
+        node.call(owner, importedDeposit, () -> {
+            pocm.importUsers(users.toString());
+            pocm.importBalances(balances.toString());
+            return null;
+        });
+    }
+
+    private void randomCall() throws Exception {
+        int index = random.nextInt(wallets.length);
+        Address wallet = wallets[index];
+        long height = Block.number();
+        if (depositHeights[index] < 0) {
+            int op = random.nextInt(4);
+            if (op == 0) {
+                transferSome(wallet);
+            } else {
+                node.call(wallet, depositValue(), () -> pocm.deposit());
+                depositHeights[index] = height;
+            }
+            return;
+        }
+        int op = random.nextInt(10);
+        if (op == 0 && height > depositHeights[index] + LOCKED) {
+            node.call(wallet, BigInteger.ZERO, () -> pocm.quit());
+            depositHeights[index] = -1;
+        } else if (op < 3) {
+            node.call(wallet, depositValue(), () -> pocm.increaseDeposit());
+        } else if (op < 6) {
+            node.call(wallet, BigInteger.ZERO, () -> pocm.receive());
+        } else if (op < 7) {
+            Address to = wallets[random.nextInt(wallets.length)];
+            node.call(wallet, BigInteger.ZERO, () -> pocm.receiveTo(to));
+        } else {
+            transferSome(wallet);
+        }
+    }
+
+    /**
+     *  把余额的一部分转给随机的钱包
+     */
+    private void transferSome(Address wallet) throws Exception {
+        BigInteger balance = pocm.balanceOf(wallet);
+        if (balance.signum() == 0) {
+            return;
+        }
+        BigInteger value = balance.multiply(BigInteger.valueOf(1 + random.nextInt(100))).divide(BigInteger.valueOf(100));
+        Address to = wallets[random.nextInt(wallets.length)];
+        node.call(wallet, BigInteger.ZERO, () -> pocm.transfer(to, value));
+    }
+
+    private void check(PocmAuditor auditor) {
+        BigInteger totalDeposit = new BigDecimal(pocm.totalDeposit()).scaleByPowerOfTen(8).toBigIntegerExact();
+        auditor.checkSnapshot(Block.number(), pocm.totalSupply(), totalDeposit, pocm.totalDepositAddressCount(),
+                pocm.totalReceivedMining());
+    }
+
+    /**
+     *  重放记录的事件，测量审计本身的吞吐量
+     */
+    private void measureReplay() {
+        long start = System.nanoTime();
+        long divergences = 0;
+        for (int round = 0; round < REPLAY_ROUNDS; round++) {
+            PocmAuditor auditor = new PocmAuditor(message -> { });
+            for (RecordedEvent recorded : events) {
+                auditor.onEvent(recorded.height, recorded.event);
+            }
+            divergences += auditor.getDivergenceCount();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("replay: %d events x %d rounds, %d divergences, %.0f events/s%n",
+                events.size(), REPLAY_ROUNDS, divergences, events.size() * (double) REPLAY_ROUNDS / seconds);
+    }
+
+    /**
+     *  把中间的一个抵押事件的金额加1后重放，审计应在该事件所在区块报告不一致
+     */
+    private boolean checkTampered() {
+        int target = -1;
+        for (int i = events.size() / 2; i < events.size(); i++) {
+            if (events.get(i).event instanceof DepositEvent) {
+                target = i;
+                break;
+            }
+        }
+        if (target < 0) {
+            System.out.println("tampered: no deposit event to tamper with");
+            return false;
+        }
+        long[] flaggedHeight = {-1};
+        PocmAuditor auditor = new PocmAuditor(message -> {
+            if (flaggedHeight[0] < 0) {
+                flaggedHeight[0] = Long.parseLong(message.substring("height ".length(), message.indexOf(',')));
+                System.out.println("tampered: " + message);
+            }
+        });
+        for (int i = 0; i < events.size(); i++) {
+            RecordedEvent recorded = events.get(i);
+            Event event = recorded.event;
+            if (i == target) {
+                DepositEvent deposit = (DepositEvent) event;
+                event = new DepositEvent(deposit.getUser(), deposit.getValue().add(BigInteger.ONE),
+                        deposit.getTotalDeposit(), deposit.getTotalDepositAddressCount());
+            }
+            auditor.onEvent(recorded.height, event);
+        }
+        boolean flagged = flaggedHeight[0] == events.get(target).height;
+        System.out.println("tampered: deposit event at height " + events.get(target).height
+                + (flagged ? " flagged in the same block" : " NOT flagged in the same block"));
+        return flagged;
+    }
+
+    /**
+     *  2~100 个NULS，高于合约的最低抵押 1 个NULS
+     */
+    private BigInteger depositValue() {
+        return BigInteger.valueOf(2 + random.nextInt(99)).multiply(NA_PER_NULS);
+    }
+
+    static class RecordedEvent {
+        final long height;
+        final Event event;
+
+        RecordedEvent(long height, Event event) {
+            this.height = height;
+            this.event = event;
+        }
+    }
+}
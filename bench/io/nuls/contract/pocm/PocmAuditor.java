@@ -0,0 +1,230 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Event;
+import io.nuls.contract.token.Token;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 链下的 Pocm 账目审计：按顺序消费合约事件，增量维护总抵押、抵押地址数量、总发行量、已领取奖励和各地址余额，
+ * 每个事件与事件中携带的合计值核对，每个区块结束时可与合约视图核对，不一致时立即报告，不属于合约代码，不随合约打包
+ * 只为抵押中或有余额的地址保留状态，每个地址的状态大小固定
+ */
+public class PocmAuditor {
+
+    // 各地址的抵押和余额
+    private final Map<Address, Account> accounts = new HashMap<Address, Account>();
+    // 不一致的报告
+    private final Consumer<String> divergenceListener;
+
+    private BigInteger totalSupply = BigInteger.ZERO;
+    private BigInteger totalDeposit = BigInteger.ZERO;
+    private int totalDepositAddressCount;
+    private BigInteger totalReceivedMining = BigInteger.ZERO;
+    // 上一个事件，ReceiveEvent 应紧跟在对应的增发 TransferEvent 之后
+    private Event lastEvent;
+    private long height;
+    private long eventCount;
+    private long divergenceCount;
+
+    public PocmAuditor(Consumer<String> divergenceListener) {
+        this.divergenceListener = divergenceListener;
+    }
+
+    /**
+     *  消费高度 height 上的一个事件，事件须按合约发出的顺序传入
+     */
+    public void onEvent(long height, Event event) {
+        this.height = height;
+        eventCount++;
+        if (event instanceof Token.TransferEvent) {
+            onTransfer((Token.TransferEvent) event);
+        } else if (event instanceof DepositEvent) {
+            onDeposit((DepositEvent) event);
+        } else if (event instanceof ImportUserEvent) {
+            onImportUser((ImportUserEvent) event);
+        } else if (event instanceof ReceiveEvent) {
+            onReceive((ReceiveEvent) event);
+        } else if (event instanceof QuitEvent) {
+            onQuit((QuitEvent) event);
+        }
+        lastEvent = event;
+    }
+
+    /**
+     *  区块结束时与合约视图核对，totalDeposit 的单位为 Na
+     */
+    public void checkSnapshot(long height, BigInteger totalSupply, BigInteger totalDeposit, int totalDepositAddressCount,
+                              BigInteger totalReceivedMining) {
+        this.height = height;
+        check("totalSupply", this.totalSupply, totalSupply);
+        check("totalDeposit", this.totalDeposit, totalDeposit);
+        check("totalDepositAddressCount", this.totalDepositAddressCount, totalDepositAddressCount);
+        check("totalReceivedMining", this.totalReceivedMining, totalReceivedMining);
+    }
+
+    private void onTransfer(Token.TransferEvent event) {
+        if (event.getFrom() == null) {
+            totalSupply = totalSupply.add(event.getValue());
+        } else {
+            Account from = account(event.getFrom());
+            from.balance = from.balance.subtract(event.getValue());
+            if (from.balance.signum() < 0) {
+                report("balance of " + event.getFrom() + " is negative: " + from.balance);
+            }
+            release(event.getFrom(), from);
+        }
+        if (event.getTo() == null) {
+            totalSupply = totalSupply.subtract(event.getValue());
+        } else {
+            Account to = account(event.getTo());
+            to.balance = to.balance.add(event.getValue());
+            release(event.getTo(), to);
+        }
+    }
+
+    private void onDeposit(DepositEvent event) {
+        Account account = account(event.getUser());
+        if (account.deposit == null) {
+            account.deposit = BigInteger.ZERO;
+            account.receivedMining = BigInteger.ZERO;
+            totalDepositAddressCount++;
+        }
+        account.deposit = account.deposit.add(event.getValue());
+        totalDeposit = totalDeposit.add(event.getValue());
+        check("totalDeposit", totalDeposit, event.getTotalDeposit());
+        check("totalDepositAddressCount", totalDepositAddressCount, event.getTotalDepositAddressCount());
+    }
+
+    private void onImportUser(ImportUserEvent event) {
+        Account account = account(event.getUser());
+        check("imported deposit of " + event.getUser(), account.deposit, event.getDepositAmount());
+        account.receivedMining = event.getReceivedMining();
+        totalReceivedMining = totalReceivedMining.add(event.getReceivedMining());
+    }
+
+    private void onReceive(ReceiveEvent event) {
+        boolean minted = lastEvent instanceof Token.TransferEvent
+                && ((Token.TransferEvent) lastEvent).getFrom() == null
+                && event.getTo().equals(((Token.TransferEvent) lastEvent).getTo())
+                && event.getValue().equals(((Token.TransferEvent) lastEvent).getValue());
+        if (!minted) {
+            report("reward of " + event.getUser() + " was not minted right before ReceiveEvent");
+        }
+        Account account = account(event.getUser());
+        if (account.deposit == null) {
+            report("reward received by " + event.getUser() + " without deposit");
+            release(event.getUser(), account);
+            return;
+        }
+        account.receivedMining = account.receivedMining.add(event.getValue());
+        totalReceivedMining = totalReceivedMining.add(event.getValue());
+        check("receivedMining of " + event.getUser(), account.receivedMining, event.getReceivedMining());
+    }
+
+    private void onQuit(QuitEvent event) {
+        Account account = account(event.getUser());
+        check("refunded deposit of " + event.getUser(), account.deposit, event.getValue());
+        if (account.deposit != null) {
+            totalDeposit = totalDeposit.subtract(account.deposit);
+            totalDepositAddressCount--;
+        }
+        account.deposit = null;
+        account.receivedMining = null;
+        release(event.getUser(), account);
+        check("totalDeposit", totalDeposit, event.getTotalDeposit());
+        check("totalDepositAddressCount", totalDepositAddressCount, event.getTotalDepositAddressCount());
+    }
+
+    private Account account(Address address) {
+        Account account = accounts.get(address);
+        if (account == null) {
+            account = new Account();
+            accounts.put(address, account);
+        }
+        return account;
+    }
+
+    /**
+     *  不再抵押且余额为0的地址不保留状态
+     */
+    private void release(Address address, Account account) {
+        if (account.deposit == null && account.balance.signum() == 0) {
+            accounts.remove(address);
+        }
+    }
+
+    private void check(String field, Object expected, Object actual) {
+        if (expected == null ? actual != null : !expected.equals(actual)) {
+            report(field + ": audited=" + expected + " contract=" + actual);
+        }
+    }
+
+    private void report(String message) {
+        divergenceCount++;
+        divergenceListener.accept("height " + height + ", event " + eventCount + ": " + message);
+    }
+
+    public BigInteger getTotalSupply() {
+        return totalSupply;
+    }
+
+    public BigInteger getTotalDeposit() {
+        return totalDeposit;
+    }
+
+    public int getTotalDepositAddressCount() {
+        return totalDepositAddressCount;
+    }
+
+    public BigInteger getTotalReceivedMining() {
+        return totalReceivedMining;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public long getDivergenceCount() {
+        return divergenceCount;
+    }
+
+    public int getAccountCount() {
+        return accounts.size();
+    }
+
+    static class Account {
+        // 抵押金额，未抵押时为null
+        BigInteger deposit;
+        // 本次抵押已领取的奖励，未抵押时为null
+        BigInteger receivedMining;
+        BigInteger balance = BigInteger.ZERO;
+    }
+}
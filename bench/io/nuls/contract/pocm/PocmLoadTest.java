@@ -0,0 +1,308 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Block;
+import io.nuls.contract.sdk.LocalNode;
+import io.nuls.contract.sdk.Utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pocm 的开环压测：按固定的平均到达速率（泊松到达）发起 deposit、increaseDeposit、receive、quit、user 调用，
+ * 每个调用在一个虚拟线程中执行，通过 LocalNode 在进程内逐个执行，统计每个方法的吞吐量和延迟百分位，不属于合约代码，不随合约打包
+ * 延迟从计划的到达时间算起，包括等待并发名额和等待节点执行的时间，调用积压时不会因为发起方变慢而少算
+ * 需要 JDK 21（虚拟线程），运行方式（在项目根目录）：
+ * javac -cp lib/sdk-contract-vm-1.1.4.6.jar -d out $(find src bench -name '*.java')
+ * java -cp out:lib/sdk-contract-vm-1.1.4.6.jar io.nuls.contract.pocm.PocmLoadTest [--rate 2000] [--duration 30]
+ *      [--concurrency 1000] [--wallets 10000] [--initial-depositors 0.5] [--block-ms 100] [--awarding-cycle 10]
+ *      [--locked 20] [--mix deposit:2,increaseDeposit:1,receive:5,quit:1,user:20]
+ */
+public class PocmLoadTest {
+
+    private static final String[] METHODS = {"deposit", "increaseDeposit", "receive", "quit", "user"};
+    private static final BigInteger NA_PER_NULS = BigInteger.TEN.pow(8);
+    // 选择钱包的最多尝试次数，找不到符合条件的空闲钱包时跳过本次调用
+    private static final int PICK_ATTEMPTS = 32;
+
+    private double rate = 2000;
+    private int duration = 30;
+    private int concurrency = 1000;
+    private int walletCount = 10000;
+    private double initialDepositors = 0.5;
+    private int blockMs = 100;
+    private int awardingCycle = 10;
+    private int locked = 20;
+    private final int[] mix = {2, 1, 5, 1, 20};
+
+    private LocalNode node;
+    private Pocm pocm;
+    private Wallet[] wallets;
+    private final Map<String, MethodStats> stats = new LinkedHashMap<String, MethodStats>();
+
+    public static void main(String[] args) throws Exception {
+        PocmLoadTest test = new PocmLoadTest();
+        test.parse(args);
+        test.setUp();
+        test.run();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            String value = args[i + 1];
+            if ("--rate".equals(args[i])) {
+                rate = Double.parseDouble(value);
+            } else if ("--duration".equals(args[i])) {
+                duration = Integer.parseInt(value);
+            } else if ("--concurrency".equals(args[i])) {
+                concurrency = Integer.parseInt(value);
+            } else if ("--wallets".equals(args[i])) {
+                walletCount = Integer.parseInt(value);
+            } else if ("--initial-depositors".equals(args[i])) {
+                initialDepositors = Double.parseDouble(value);
+            } else if ("--block-ms".equals(args[i])) {
+                blockMs = Integer.parseInt(value);
+            } else if ("--awarding-cycle".equals(args[i])) {
+                awardingCycle = Integer.parseInt(value);
+            } else if ("--locked".equals(args[i])) {
+                locked = Integer.parseInt(value);
+            } else if ("--mix".equals(args[i])) {
+                for (String item : value.split(",")) {
+                    String[] fields = item.split(":");
+                    mix[methodIndex(fields[0])] = Integer.parseInt(fields[1]);
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+    }
+
+    /**
+     *  部署合约，按 initialDepositors 的比例预先抵押，其余钱包在压测开始时空闲
+     */
+    private void setUp() throws Exception {
+        node = new LocalNode(1);
+        pocm = node.call(new Address("owner"), BigInteger.ZERO, () -> new Pocm("Load", "LOAD", BigInteger.valueOf(1000000), 8,
+                BigDecimal.ONE, awardingCycle, 1000000, BigDecimal.ONE, locked, Integer.MAX_VALUE, false));
+        wallets = new Wallet[walletCount];
+        Random random = new Random(1);
+        for (int i = 0; i < walletCount; i++) {
+            wallets[i] = new Wallet(new Address("wallet" + i));
+            if (random.nextDouble() < initialDepositors) {
+                Wallet wallet = wallets[i];
+                node.call(wallet.address, depositValue(random), () -> pocm.deposit());
+                wallet.deposited = true;
+                wallet.depositHeight = Block.number();
+            }
+        }
+        for (String method : METHODS) {
+            stats.put(method, new MethodStats());
+        }
+    }
+
+    private void run() throws InterruptedException {
+        ScheduledExecutorService blocks = Executors.newSingleThreadScheduledExecutor();
+        blocks.scheduleAtFixedRate(() -> node.nextBlock(), blockMs, blockMs, TimeUnit.MILLISECONDS);
+        Semaphore inFlight = new Semaphore(concurrency);
+        int mixTotal = 0;
+        for (int weight : mix) {
+            mixTotal += weight;
+        }
+        Random random = new Random(2);
+        long startHeight = Block.number();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(duration);
+        long arrivals = 0;
+        try (ExecutorService calls = Executors.newVirtualThreadPerTaskExecutor()) {
+            double offset = 0;
+            while (true) {
+                long intended = start + (long) offset;
+                if (intended >= end) {
+                    break;
+                }
+                long delay = intended - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                int method = pickMethod(random.nextInt(mixTotal));
+                calls.submit(() -> call(method, intended, inFlight));
+                arrivals++;
+                offset += -Math.log(1 - random.nextDouble()) / rate * 1e9;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        blocks.shutdownNow();
+        report(arrivals, seconds, Block.number() - startHeight);
+    }
+
+    private void call(int method, long intended, Semaphore inFlight) {
+        MethodStats methodStats = stats.get(METHODS[method]);
+        inFlight.acquireUninterruptibly();
+        Wallet wallet = null;
+        try {
+            wallet = pickWallet(method);
+            if (wallet == null) {
+                methodStats.skipped.incrementAndGet();
+                return;
+            }
+            execute(method, wallet);
+            methodStats.latency.record(System.nanoTime() - intended);
+        } catch (Utils.RevertException e) {
+            methodStats.reverted.incrementAndGet();
+        } catch (Exception e) {
+            if (methodStats.failed.getAndIncrement() == 0) {
+                e.printStackTrace();
+            }
+        } finally {
+            if (wallet != null) {
+                wallet.busy.set(false);
+            }
+            inFlight.release();
+        }
+    }
+
+    private void execute(int method, Wallet wallet) throws Exception {
+        Address address = wallet.address;
+        switch (METHODS[method]) {
+            case "deposit":
+                node.call(address, depositValue(ThreadLocalRandom.current()), () -> pocm.deposit());
+                wallet.depositHeight = Block.number();
+                wallet.deposited = true;
+                break;
+            case "increaseDeposit":
+                node.call(address, depositValue(ThreadLocalRandom.current()), () -> pocm.increaseDeposit());
+                break;
+            case "receive":
+                node.call(address, BigInteger.ZERO, () -> pocm.receive());
+                break;
+            case "quit":
+                node.call(address, BigInteger.ZERO, () -> pocm.quit());
+                wallet.deposited = false;
+                break;
+            default:
+                node.call(address, BigInteger.ZERO, () -> pocm.user(address));
+        }
+    }
+
+    /**
+     *  随机选择一个符合方法前提且没有进行中调用的钱包：deposit 选未抵押的，quit 选已解锁的，其余选已抵押的
+     */
+    private Wallet pickWallet(int method) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String name = METHODS[method];
+        for (int i = 0; i < PICK_ATTEMPTS; i++) {
+            Wallet wallet = wallets[random.nextInt(wallets.length)];
+            boolean eligible;
+            if ("deposit".equals(name)) {
+                eligible = !wallet.deposited;
+            } else if ("quit".equals(name)) {
+                eligible = wallet.deposited && Block.number() > wallet.depositHeight + locked;
+            } else {
+                eligible = wallet.deposited;
+            }
+            if (eligible && wallet.busy.compareAndSet(false, true)) {
+                if (wallet.deposited == !"deposit".equals(name)) {
+                    return wallet;
+                }
+                wallet.busy.set(false);
+            }
+        }
+        return null;
+    }
+
+    private int pickMethod(int ticket) {
+        for (int i = 0; i < mix.length; i++) {
+            ticket -= mix[i];
+            if (ticket < 0) {
+                return i;
+            }
+        }
+        return mix.length - 1;
+    }
+
+    private static int methodIndex(String method) {
+        for (int i = 0; i < METHODS.length; i++) {
+            if (METHODS[i].equals(method)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown method " + method);
+    }
+
+    /**
+     *  2~100 个NULS，高于合约的最低抵押 1 个NULS
+     */
+    private static BigInteger depositValue(Random random) {
+        return BigInteger.valueOf(2 + random.nextInt(99)).multiply(NA_PER_NULS);
+    }
+
+    private void report(long arrivals, double seconds, long blocks) {
+        System.out.printf("%d arrivals in %.1f s (target %.0f/s), %d blocks, concurrency %d, %d wallets%n",
+                arrivals, seconds, rate, blocks, concurrency, walletCount);
+        System.out.printf("%-16s %9s %9s %9s %9s %10s %9s %9s %9s %9s %9s %9s%n", "method", "ok", "reverted", "failed",
+                "skipped", "ok/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, MethodStats> entry : stats.entrySet()) {
+            MethodStats s = entry.getValue();
+            LatencyHistogram h = s.latency;
+            System.out.printf("%-16s %9d %9d %9d %9d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f %9.3f%n", entry.getKey(),
+                    h.getTotalCount(), s.reverted.get(), s.failed.get(), s.skipped.get(), h.getTotalCount() / seconds,
+                    h.getMean() / 1e6, h.getValueAtPercentile(50) / 1e6, h.getValueAtPercentile(90) / 1e6,
+                    h.getValueAtPercentile(99) / 1e6, h.getValueAtPercentile(99.9) / 1e6, h.getMax() / 1e6);
+        }
+    }
+
+    static class Wallet {
+        final Address address;
+        // 有进行中的调用
+        final AtomicBoolean busy = new AtomicBoolean();
+        volatile boolean deposited;
+        volatile long depositHeight;
+
+        Wallet(Address address) {
+            this.address = address;
+        }
+    }
+
+    static class MethodStats {
+        // 成功调用的延迟，纳秒
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong reverted = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.model.MiningInfo;
+import io.nuls.contract.util.PocmUtil;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * 参考实现，直接调用合约中的 MiningSchedule 和 PocmUtil
+ */
+public class ReferenceRewardMath implements RewardMath {
+
+    public static final Factory FACTORY = new Factory() {
+        @Override
+        public RewardMath create(long createHeight, BigDecimal initialPrice, int awardingCycle, int rewardHalvingCycle, int decimals) {
+            return new ReferenceRewardMath(new MiningSchedule(createHeight, initialPrice, awardingCycle, rewardHalvingCycle, decimals));
+        }
+    };
+
+    private final MiningSchedule schedule;
+
+    public ReferenceRewardMath(MiningSchedule schedule) {
+        this.schedule = schedule;
+    }
+
+    @Override
+    public BigInteger calcMining(MiningInfo miningInfo, long currentHeight) {
+        return schedule.calcMining(miningInfo, currentHeight);
+    }
+
+    @Override
+    public BigDecimal calcPrice(long currentHeight) {
+        return schedule.calcPrice(currentHeight);
+    }
+
+    @Override
+    public boolean checkMaximumDecimals(BigDecimal price, int decimals) {
+        return PocmUtil.checkMaximumDecimals(price, decimals);
+    }
+
+    @Override
+    public BigDecimal toNuls(BigInteger na) {
+        return PocmUtil.toNuls(na);
+    }
+
+    @Override
+    public BigInteger toNa(BigDecimal nuls) {
+        return PocmUtil.toNa(nuls);
+    }
+}
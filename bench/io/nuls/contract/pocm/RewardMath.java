@@ -0,0 +1,58 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.model.MiningInfo;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * 奖励计算的一种实现，供 RewardMathReplay 对比参考实现与候选实现
+ */
+public interface RewardMath {
+
+    /**
+     *  同 MiningSchedule.calcMining，会更新 miningInfo 的挖矿次数和下次挖矿高度
+     */
+    BigInteger calcMining(MiningInfo miningInfo, long currentHeight);
+
+    /**
+     *  同 MiningSchedule.calcPrice，比较时包括 scale，currentPrice 视图直接输出该值
+     */
+    BigDecimal calcPrice(long currentHeight);
+
+    boolean checkMaximumDecimals(BigDecimal price, int decimals);
+
+    BigDecimal toNuls(BigInteger na);
+
+    BigInteger toNa(BigDecimal nuls);
+
+    /**
+     *  按奖励计划参数创建实现
+     */
+    interface Factory {
+        RewardMath create(long createHeight, BigDecimal initialPrice, int awardingCycle, int rewardHalvingCycle, int decimals);
+    }
+}
@@ -0,0 +1,420 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.model.MiningInfo;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 奖励计算的差分回放：同一段抵押历史分别用参考实现和候选实现执行，每一步之后逐字段比较用户挖矿信息、余额和价格，
+ * 报告第一处不一致，不属于合约代码，不随合约打包
+ * 随机历史按种子生成，可复现；记录的历史从文件读取，格式见 readHistory
+ * 运行方式（在项目根目录）：
+ * javac -cp lib/sdk-contract-vm-1.1.4.6.jar -d out $(find src bench -name '*.java')
+ * java -cp out:lib/sdk-contract-vm-1.1.4.6.jar io.nuls.contract.pocm.RewardMathReplay [--seeds 64] [--steps 200000] [--threads N] [--first-seed 1]
+ * java -cp out:lib/sdk-contract-vm-1.1.4.6.jar io.nuls.contract.pocm.RewardMathReplay --replay history.csv
+ */
+public class RewardMathReplay {
+
+    private static final int USERS = 64;
+
+    public static void main(String[] args) throws Exception {
+        int seeds = 64;
+        int steps = 200000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long firstSeed = 1;
+        String replay = null;
+        for (int i = 0; i < args.length; i += 2) {
+            String value = args[i + 1];
+            if ("--seeds".equals(args[i])) {
+                seeds = Integer.parseInt(value);
+            } else if ("--steps".equals(args[i])) {
+                steps = Integer.parseInt(value);
+            } else if ("--threads".equals(args[i])) {
+                threads = Integer.parseInt(value);
+            } else if ("--first-seed".equals(args[i])) {
+                firstSeed = Long.parseLong(value);
+            } else if ("--replay".equals(args[i])) {
+                replay = value;
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        RewardMath.Factory reference = ReferenceRewardMath.FACTORY;
+        RewardMath.Factory candidate = CandidateRewardMath.FACTORY;
+        if (replay != null) {
+            History history = readHistory(replay);
+            Result result = run(replay, history, reference, candidate);
+            System.out.println(result.steps + " steps, " + (result.divergence == null ? "no divergence" : result.divergence));
+            System.exit(result.divergence == null ? 0 : 1);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Result>> futures = new ArrayList<Future<Result>>();
+        long start = System.nanoTime();
+        for (long seed = firstSeed; seed < firstSeed + seeds; seed++) {
+            final long runSeed = seed;
+            final int runSteps = steps;
+            futures.add(executor.submit(() -> run("seed " + runSeed, randomHistory(runSeed, runSteps), reference, candidate)));
+        }
+        long totalSteps = 0;
+        int divergent = 0;
+        for (Future<Result> future : futures) {
+            Result result = future.get();
+            totalSteps += result.steps;
+            if (result.divergence != null) {
+                divergent++;
+                System.out.println(result.divergence);
+            }
+        }
+        executor.shutdown();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d runs, %d steps, %d divergent runs, %.1f s, %.0f steps/min on %d threads%n",
+                seeds, totalSteps, divergent, seconds, totalSteps / seconds * 60, threads);
+        System.exit(divergent == 0 ? 0 : 1);
+    }
+
+    /**
+     *  在两个账本上依次执行历史中的每一步并比较，遇到第一处不一致即停止
+     */
+    static Result run(String name, History history, RewardMath.Factory reference, RewardMath.Factory candidate) {
+        Ledger expected = new Ledger(history, reference);
+        Ledger actual = new Ledger(history, candidate);
+        Result result = new Result();
+        String divergence = compareUtil(expected.math, actual.math, history.initialPrice, history.decimals);
+        if (divergence != null) {
+            result.divergence = name + " schedule: " + divergence;
+            return result;
+        }
+        for (Step step : history.steps) {
+            Object expectedResult = expected.apply(step);
+            Object actualResult = actual.apply(step);
+            result.steps++;
+            divergence = compare("result", expectedResult, actualResult);
+            if (divergence == null) {
+                divergence = compareUser(expected.users.get(step.user), actual.users.get(step.user));
+            }
+            if (divergence == null) {
+                divergence = compare("balance", expected.balanceOf(step.user), actual.balanceOf(step.user));
+            }
+            if (divergence == null) {
+                divergence = compare("totalDeposit", expected.totalDeposit, actual.totalDeposit);
+            }
+            if (divergence == null) {
+                divergence = compare("totalMinted", expected.totalMinted, actual.totalMinted);
+            }
+            if (divergence == null) {
+                divergence = compare("calcPrice", expected.math.calcPrice(step.height), actual.math.calcPrice(step.height));
+            }
+            if (divergence == null && step.value != null) {
+                // 用本步的金额构造不同小数位的数值，比较工具函数
+                divergence = compareUtil(expected.math, actual.math, new BigDecimal(step.value, step.value.intValue() & 15), history.decimals);
+            }
+            if (divergence != null) {
+                result.divergence = name + " step " + result.steps + " (" + step + "): " + divergence;
+                return result;
+            }
+        }
+        return result;
+    }
+
+    private static String compareUser(MiningInfo expected, MiningInfo actual) {
+        if (expected == null || actual == null) {
+            return expected == actual ? null : compare("user", expected == null ? null : "present", actual == null ? null : "present");
+        }
+        String divergence = compare("depositAmount", expected.getDepositAmount(), actual.getDepositAmount());
+        if (divergence == null) {
+            divergence = compare("depositHeight", expected.getDepositHeight(), actual.getDepositHeight());
+        }
+        if (divergence == null) {
+            divergence = compare("totalMining", expected.getTotalMining(), actual.getTotalMining());
+        }
+        if (divergence == null) {
+            divergence = compare("receivedMining", expected.getReceivedMining(), actual.getReceivedMining());
+        }
+        if (divergence == null) {
+            divergence = compare("miningCount", expected.getMiningCount(), actual.getMiningCount());
+        }
+        if (divergence == null) {
+            divergence = compare("nextMiningHeight", expected.getNextMiningHeight(), actual.getNextMiningHeight());
+        }
+        if (divergence == null) {
+            divergence = compare("depositChangeHeight", expected.getDepositChangeHeight(), actual.getDepositChangeHeight());
+        }
+        return divergence;
+    }
+
+    /**
+     *  比较 checkMaximumDecimals、toNuls、toNa，toNuls 的结果包括 scale 一起比较
+     */
+    private static String compareUtil(RewardMath expected, RewardMath actual, BigDecimal price, int decimals) {
+        String divergence = compare("checkMaximumDecimals(" + price + "," + decimals + ")",
+                expected.checkMaximumDecimals(price, decimals), actual.checkMaximumDecimals(price, decimals));
+        BigInteger na = price.unscaledValue();
+        if (divergence == null) {
+            divergence = compare("toNuls(" + na + ")", expected.toNuls(na), actual.toNuls(na));
+        }
+        if (divergence == null) {
+            divergence = compare("toNa(" + price + ")", expected.toNa(price), actual.toNa(price));
+        }
+        return divergence;
+    }
+
+    private static String compare(String field, Object expected, Object actual) {
+        if (expected == null ? actual == null : expected.equals(actual)) {
+            return null;
+        }
+        return field + ": reference=" + expected + " candidate=" + actual;
+    }
+
+    /**
+     *  按种子生成随机历史：随机的奖励计划参数，高度随机前进，偶尔跨越多个发放周期或减半高度
+     */
+    static History randomHistory(long seed, int steps) {
+        Random random = new Random(seed);
+        History history = new History();
+        history.decimals = random.nextInt(19);
+        history.createHeight = random.nextInt(1000000);
+        history.awardingCycle = random.nextInt(1000);
+        // 平均每步前进约 0.45 个发放周期，减半周期按整段历史减半 1~32 次选取
+        long expectedHeight = (long) ((history.awardingCycle + 1L) * 0.45 * steps);
+        history.rewardHalvingCycle = (int) Math.min(Integer.MAX_VALUE - 1,
+                Math.max(history.awardingCycle, expectedHeight / (1 + random.nextInt(32))));
+        history.minimumLocked = random.nextInt(2000);
+        int priceScale = random.nextInt(history.decimals + 1);
+        history.initialPrice = new BigDecimal(BigInteger.valueOf(1 + random.nextInt(1000000)), priceScale);
+
+        // 当前抵押用户的抵押高度，用于只在解锁后生成 quit
+        Map<String, Long> depositHeights = new HashMap<String, Long>();
+        long height = history.createHeight;
+        long interval = history.awardingCycle + 1L;
+        for (int i = 0; i < steps; i++) {
+            int jump = random.nextInt(100);
+            if (jump == 0) {
+                height += interval * (1 + random.nextInt(50));
+            } else if (jump < 40) {
+                height += random.nextInt((int) interval + 1);
+            }
+            String user = "user" + random.nextInt(USERS);
+            Long depositHeight = depositHeights.get(user);
+            BigInteger value = BigInteger.valueOf(1 + (random.nextLong() & Long.MAX_VALUE) % 100000000000000L);
+            int op = random.nextInt(10);
+            if (depositHeight == null) {
+                history.steps.add(new Step(height, "deposit", user, value));
+                depositHeights.put(user, height);
+            } else if (op < 2) {
+                history.steps.add(new Step(height, "increaseDeposit", user, value));
+            } else if (op < 5) {
+                history.steps.add(new Step(height, "receive", user, null));
+            } else if (op < 6 && height > depositHeight + history.minimumLocked) {
+                history.steps.add(new Step(height, "quit", user, null));
+                depositHeights.remove(user);
+            } else {
+                history.steps.add(new Step(height, "user", user, null));
+            }
+        }
+        return history;
+    }
+
+    /**
+     *  读取记录的历史，第一行为奖励计划参数，之后每行一步，# 开头的行为注释：
+     *  schedule,createHeight,initialPrice,awardingCycle,rewardHalvingCycle,decimals,minimumLocked
+     *  height,deposit|increaseDeposit,address,value
+     *  height,receive|quit|user,address
+     */
+    static History readHistory(String path) throws IOException {
+        History history = null;
+        BufferedReader reader = new BufferedReader(new FileReader(path));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (history == null) {
+                    if (fields.length != 7 || !"schedule".equals(fields[0])) {
+                        throw new IOException("The first record must be the schedule: " + line);
+                    }
+                    history = new History();
+                    history.createHeight = Long.parseLong(fields[1]);
+                    history.initialPrice = new BigDecimal(fields[2]);
+                    history.awardingCycle = Integer.parseInt(fields[3]);
+                    history.rewardHalvingCycle = Integer.parseInt(fields[4]);
+                    history.decimals = Integer.parseInt(fields[5]);
+                    history.minimumLocked = Integer.parseInt(fields[6]);
+                    continue;
+                }
+                BigInteger value = fields.length > 3 ? new BigInteger(fields[3]) : null;
+                history.steps.add(new Step(Long.parseLong(fields[0]), fields[1], fields[2], value));
+            }
+        } finally {
+            reader.close();
+        }
+        if (history == null) {
+            throw new IOException("Empty history: " + path);
+        }
+        return history;
+    }
+
+    /**
+     *  与 Pocm 相同的抵押、追加抵押、领取、退出、查询流程，奖励计算使用给定的实现
+     */
+    static class Ledger {
+        final RewardMath math;
+        final int minimumLocked;
+        final Map<String, MiningInfo> users = new HashMap<String, MiningInfo>();
+        final Map<String, BigInteger> balances = new HashMap<String, BigInteger>();
+        BigInteger totalDeposit = BigInteger.ZERO;
+        BigInteger totalMinted = BigInteger.ZERO;
+
+        Ledger(History history, RewardMath.Factory factory) {
+            this.math = factory.create(history.createHeight, history.initialPrice, history.awardingCycle,
+                    history.rewardHalvingCycle, history.decimals);
+            this.minimumLocked = history.minimumLocked;
+        }
+
+        /**
+         *  执行一步，返回本步的结果用于比较；被合约拒绝的操作返回拒绝原因，不修改状态
+         */
+        Object apply(Step step) {
+            MiningInfo info = users.get(step.user);
+            if ("deposit".equals(step.op)) {
+                if (info != null) {
+                    return "rejected: 不可重复抵押";
+                }
+                info = new MiningInfo();
+                info.setDepositAmount(step.value);
+                info.setDepositHeight(step.height);
+                info.setDepositChangeHeight(step.height);
+                users.put(step.user, info);
+                totalDeposit = totalDeposit.add(step.value);
+                return BigInteger.ZERO;
+            }
+            if (info == null) {
+                return "rejected: 此用户未参与";
+            }
+            if ("increaseDeposit".equals(step.op)) {
+                BigInteger mining = settle(step.user, info, step.height);
+                info.setDepositAmount(info.getDepositAmount().add(step.value));
+                info.setDepositChangeHeight(step.height);
+                totalDeposit = totalDeposit.add(step.value);
+                return mining;
+            }
+            if ("receive".equals(step.op)) {
+                return settle(step.user, info, step.height);
+            }
+            if ("quit".equals(step.op)) {
+                long unLockedHeight = info.getDepositHeight() + minimumLocked + 1;
+                if (unLockedHeight > step.height) {
+                    return "rejected: 挖矿锁定中, 解锁高度是 " + unLockedHeight;
+                }
+                BigInteger mining = settle(step.user, info, step.height);
+                totalDeposit = totalDeposit.subtract(info.getDepositAmount());
+                users.remove(step.user);
+                return mining;
+            }
+            if ("user".equals(step.op)) {
+                MiningInfo view = copy(info);
+                BigInteger mining = math.calcMining(view, step.height);
+                return view.getTotalMining().add(mining) + "/" + view.getMiningCount() + "/" + view.getNextMiningHeight();
+            }
+            throw new IllegalArgumentException("Unknown operation " + step.op);
+        }
+
+        BigInteger balanceOf(String user) {
+            BigInteger balance = balances.get(user);
+            return balance == null ? BigInteger.ZERO : balance;
+        }
+
+        private BigInteger settle(String user, MiningInfo info, long height) {
+            BigInteger mining = math.calcMining(info, height);
+            info.setTotalMining(info.getTotalMining().add(mining));
+            info.setReceivedMining(info.getReceivedMining().add(mining));
+            balances.put(user, balanceOf(user).add(mining));
+            totalMinted = totalMinted.add(mining);
+            return mining;
+        }
+
+        private static MiningInfo copy(MiningInfo info) {
+            MiningInfo copy = new MiningInfo();
+            copy.setDepositAmount(info.getDepositAmount());
+            copy.setDepositHeight(info.getDepositHeight());
+            copy.setTotalMining(info.getTotalMining());
+            copy.setReceivedMining(info.getReceivedMining());
+            copy.setMiningCount(info.getMiningCount());
+            copy.setNextMiningHeight(info.getNextMiningHeight());
+            copy.setDepositChangeHeight(info.getDepositChangeHeight());
+            return copy;
+        }
+    }
+
+    static class History {
+        long createHeight;
+        BigDecimal initialPrice;
+        int awardingCycle;
+        int rewardHalvingCycle;
+        int decimals;
+        int minimumLocked;
+        final List<Step> steps = new ArrayList<Step>();
+    }
+
+    static class Step {
+        final long height;
+        final String op;
+        final String user;
+        final BigInteger value;
+
+        Step(long height, String op, String user, BigInteger value) {
+            this.height = height;
+            this.op = op;
+            this.user = user;
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return height + "," + op + "," + user + (value == null ? "" : "," + value);
+        }
+    }
+
+    static class Result {
+        long steps;
+        String divergence;
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.sdk;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SDK 中 Address 的本地替身，NULS 余额记录在内存中，不校验地址格式，不支持跨合约调用
+ * 编译时放在 lib 中的 SDK 之前，使合约代码不依赖节点运行，见 LocalNode
+ */
+public class Address {
+
+    // 各地址从合约收到的NULS
+    private static final Map<String, BigInteger> BALANCES = new ConcurrentHashMap<String, BigInteger>();
+
+    private final String address;
+
+    public Address(String address) {
+        this.address = address;
+    }
+
+    public BigInteger balance() {
+        BigInteger balance = BALANCES.get(address);
+        return balance == null ? BigInteger.ZERO : balance;
+    }
+
+    public void transfer(BigInteger value) {
+        BALANCES.merge(address, value, BigInteger::add);
+    }
+
+    public void call(String methodName, String methodDesc, String[][] args, BigInteger value) {
+        throw new UnsupportedOperationException("Cross-contract calls are not simulated.");
+    }
+
+    public String callWithReturnValue(String methodName, String methodDesc, String[][] args, BigInteger value) {
+        throw new UnsupportedOperationException("Cross-contract calls are not simulated.");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return address.equals(((Address) o).address);
+    }
+
+    @Override
+    public int hashCode() {
+        return address.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return address;
+    }
+}
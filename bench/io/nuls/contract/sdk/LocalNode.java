@@ -0,0 +1,78 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.sdk;
+
+import java.math.BigInteger;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 进程内的节点替身，与 Address、Block、Msg、Utils 的替身一起使合约代码脱离NULS节点运行，不属于合约代码，不随合约打包
+ * 与节点一样逐个执行合约调用，调用之间可以出块；替身的状态是全局的，一个进程中只应有一个 LocalNode
+ * 被拒绝的调用抛出 Utils.RevertException，已修改的状态不会回滚，驱动方应尽量只发起能成功的调用
+ */
+public class LocalNode {
+
+    // 公平锁，按到达顺序执行调用
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    public LocalNode(long startHeight) {
+        Block.setNumber(startHeight);
+    }
+
+    /**
+     *  以 sender 的身份、转入 value 个NULS执行一次合约调用，包括部署合约
+     */
+    public <T> T call(Address sender, BigInteger value, Callable<T> call) throws Exception {
+        lock.lock();
+        try {
+            Msg.set(sender, value);
+            return call.call();
+        } finally {
+            Msg.clear();
+            lock.unlock();
+        }
+    }
+
+    /**
+     *  出一个块，在当前调用执行完之后生效
+     */
+    public long nextBlock() {
+        lock.lock();
+        try {
+            Block.setNumber(Block.number() + 1);
+            return Block.number();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     *  接收合约发出的事件，回调在执行调用的线程上、持有执行锁时进行，此时 Block.number() 为事件所在高度
+     */
+    public void setEventListener(Consumer<Event> listener) {
+        Utils.setEventListener(listener);
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.sdk;
+
+import java.math.BigInteger;
+
+/**
+ * SDK 中 Msg 的本地替身，调用者和转入金额由 LocalNode 按线程设置，只实现合约代码用到的方法
+ */
+public class Msg {
+
+    private static final ThreadLocal<Address> SENDER = new ThreadLocal<Address>();
+    private static final ThreadLocal<BigInteger> VALUE = new ThreadLocal<BigInteger>();
+
+    public static Address sender() {
+        return SENDER.get();
+    }
+
+    public static BigInteger value() {
+        BigInteger value = VALUE.get();
+        return value == null ? BigInteger.ZERO : value;
+    }
+
+    static void set(Address sender, BigInteger value) {
+        SENDER.set(sender);
+        VALUE.set(value);
+    }
+
+    static void clear() {
+        SENDER.remove();
+        VALUE.remove();
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.sdk;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Consumer;
+
+/**
+ * SDK 中 Utils 的本地替身，只实现合约代码用到的方法
+ * revert 抛出 RevertException，但不会像节点那样回滚本次调用已修改的状态
+ */
+public class Utils {
+
+    private static volatile Consumer<Event> eventListener;
+
+    public static void require(boolean expression) {
+        if (!expression) {
+            revert();
+        }
+    }
+
+    public static void require(boolean expression, String errorMessage) {
+        if (!expression) {
+            revert(errorMessage);
+        }
+    }
+
+    public static void revert() {
+        revert(null);
+    }
+
+    public static void revert(String errorMessage) {
+        throw new RevertException(errorMessage);
+    }
+
+    public static void emit(Event event) {
+        Consumer<Event> listener = eventListener;
+        if (listener != null) {
+            listener.accept(event);
+        }
+    }
+
+    public static String sha3(String src) {
+        return sha3(src.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String sha3(byte[] src) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA3-256").digest(src);
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void setEventListener(Consumer<Event> listener) {
+        eventListener = listener;
+    }
+
+    /**
+     * 合约调用被 require 或 revert 拒绝
+     */
+    public static class RevertException extends RuntimeException {
+        public RevertException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import java.math.BigInteger;
+
+/**
+ * 账户余额，余额在long范围内时以long保存并原地修改，超出范围时才使用BigInteger
+ */
+public class Balance {
+    // 余额（未超出long范围时）
+    private long value;
+    // 余额（超出long范围时），未超出时为null
+    private BigInteger bigValue;
+
+    public Balance() {
+        this.value = 0L;
+    }
+
+    public Balance(BigInteger amount) {
+        this();
+        add(amount);
+    }
+
+    public void add(BigInteger amount) {
+        if (bigValue == null && amount.bitLength() < 64) {
+            long a = amount.longValue();
+            if (value <= Long.MAX_VALUE - a) {
+                value += a;
+                return;
+            }
+        }
+        bigValue = toBigInteger().add(amount);
+    }
+
+    /**
+     *  扣减余额，调用方需先确认余额充足
+     */
+    public void subtract(BigInteger amount) {
+        if (bigValue == null) {
+            value -= amount.longValue();
+            return;
+        }
+        bigValue = bigValue.subtract(amount);
+        if (bigValue.bitLength() < 64) {
+            value = bigValue.longValue();
+            bigValue = null;
+        }
+    }
+
+    public int compareTo(BigInteger amount) {
+        if (bigValue != null) {
+            return bigValue.compareTo(amount);
+        }
+        if (amount.bitLength() >= 64) {
+            return -amount.signum();
+        }
+        long a = amount.longValue();
+        return value < a ? -1 : (value == a ? 0 : 1);
+    }
+
+    public BigInteger toBigInteger() {
+        if (bigValue != null) {
+            return bigValue;
+        }
+        return BigInteger.valueOf(value);
+    }
+}
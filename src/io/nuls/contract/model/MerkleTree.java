@@ -0,0 +1,159 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.nuls.contract.sdk.Utils.require;
+import static io.nuls.contract.sdk.Utils.sha3;
+
+/**
+ * 可扩容的默克尔树，每个key写入时分配一个叶子，更新一个叶子需重新计算 depth 个节点
+ * 叶子写满时树高加一，原树成为新树的左子树；清空的叶子会被后续写入的key复用
+ * 叶子哈希为 sha3(key + "," + value)，空叶子为64个"0"，父节点哈希为 sha3(左子节点哈希 + 右子节点哈希)
+ */
+public class MerkleTree {
+
+    private static final String EMPTY_LEAF = "0000000000000000000000000000000000000000000000000000000000000000";
+
+    // 树高，叶子容量为 2^depth
+    private int depth;
+    // 每层空子树的哈希
+    private List<String> emptyHashes = new ArrayList<String>();
+    // key对应的叶子序号
+    private Map<String, Integer> leafIndexes = new HashMap<String, Integer>();
+    // key对应的叶子值
+    private Map<String, String> leafValues = new HashMap<String, String>();
+    // 已分配过的叶子数量
+    private int leafCount;
+    // 已清空、可复用的叶子序号
+    private List<Integer> freeLeaves = new ArrayList<Integer>();
+    // 非空节点哈希，key为 层级:序号
+    private Map<String, String> nodes = new HashMap<String, String>();
+    // 树根
+    private String root;
+
+    public MerkleTree() {
+        this.depth = 0;
+        this.emptyHashes.add(EMPTY_LEAF);
+        this.root = EMPTY_LEAF;
+    }
+
+    /**
+     *  写入叶子，value为null时清空叶子并释放叶子序号
+     */
+    public void update(String key, String value) {
+        Integer leafIndex = leafIndexes.get(key);
+        if (value == null) {
+            if (leafIndex == null) {
+                return;
+            }
+            leafIndexes.remove(key);
+            leafValues.remove(key);
+            freeLeaves.add(leafIndex);
+            write(leafIndex, EMPTY_LEAF);
+            return;
+        }
+        if (leafIndex == null) {
+            leafIndex = allocate();
+            leafIndexes.put(key, leafIndex);
+        }
+        leafValues.put(key, value);
+        write(leafIndex, sha3(key + "," + value));
+    }
+
+    /**
+     *  key的包含证明，key不在树中时返回null
+     */
+    public MerkleProof proof(String key) {
+        Integer leafIndex = leafIndexes.get(key);
+        if (leafIndex == null) {
+            return null;
+        }
+        String value = leafValues.get(key);
+        List<String> siblings = new ArrayList<String>();
+        int index = leafIndex;
+        for (int level = 0; level < depth; level++) {
+            siblings.add(node(level, index ^ 1));
+            index >>= 1;
+        }
+        return new MerkleProof(leafIndex, value, sha3(key + "," + value), siblings, root);
+    }
+
+    public String getRoot() {
+        return root;
+    }
+
+    private int allocate() {
+        if (!freeLeaves.isEmpty()) {
+            return freeLeaves.remove(freeLeaves.size() - 1);
+        }
+        if (leafCount == (1 << depth)) {
+            grow();
+        }
+        return leafCount++;
+    }
+
+    private void grow() {
+        require(depth < 30, "Merkle tree is full.");
+        String emptyHash = emptyHashes.get(depth);
+        if (!root.equals(emptyHash)) {
+            nodes.put(depth + ":0", root);
+        }
+        root = sha3(root + emptyHash);
+        emptyHashes.add(sha3(emptyHash + emptyHash));
+        depth++;
+    }
+
+    private void write(int leafIndex, String hash) {
+        int index = leafIndex;
+        for (int level = 0; level < depth; level++) {
+            String key = level + ":" + index;
+            if (hash.equals(emptyHashes.get(level))) {
+                nodes.remove(key);
+            } else {
+                nodes.put(key, hash);
+            }
+            String sibling = node(level, index ^ 1);
+            if ((index & 1) == 0) {
+                hash = sha3(hash + sibling);
+            } else {
+                hash = sha3(sibling + hash);
+            }
+            index >>= 1;
+        }
+        root = hash;
+    }
+
+    private String node(int level, int index) {
+        String hash = nodes.get(level + ":" + index);
+        if (hash == null) {
+            return emptyHashes.get(level);
+        }
+        return hash;
+    }
+}
@@ -42,9 +42,12 @@ public class MiningInfo {
     private int miningCount;
     // 下次挖矿高度
     private long nextMiningHeight;
+    // 最近一次抵押金额变更的高度（抵押或追加抵押）
+    private long depositChangeHeight;
 
     public MiningInfo() {
         this.totalMining = BigInteger.ZERO;
+        this.receivedMining = BigInteger.ZERO;
         this.miningCount = 0;
         this.nextMiningHeight = 0L;
     }
@@ -96,4 +99,12 @@ public class MiningInfo {
     public void setNextMiningHeight(long nextMiningHeight) {
         this.nextMiningHeight = nextMiningHeight;
     }
+
+    public long getDepositChangeHeight() {
+        return depositChangeHeight;
+    }
+
+    public void setDepositChangeHeight(long depositChangeHeight) {
+        this.depositChangeHeight = depositChangeHeight;
+    }
 }
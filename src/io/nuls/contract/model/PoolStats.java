@@ -0,0 +1,116 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+/**
+ * 挖矿池调用统计
+ */
+public class PoolStats {
+    // deposit 调用次数
+    private long depositCount;
+    // increaseDeposit 调用次数
+    private long increaseDepositCount;
+    // receive 调用次数
+    private long receiveCount;
+    // receiveTo 调用次数
+    private long receiveToCount;
+    // receiveAndApprove 调用次数
+    private long receiveAndApproveCount;
+    // quit 调用次数
+    private long quitCount;
+    // 奖励结算次数（receive、receiveTo、receiveAndApprove、increaseDeposit、quit 均会结算奖励）
+    private long settleCount;
+    // 结算累计的挖矿周期数，除以结算次数即为平均每次结算的周期数
+    private long settleCycles;
+    // 单次结算的最大挖矿周期数
+    private int maxSettleCycles;
+
+    public void increaseDepositCount() {
+        depositCount++;
+    }
+
+    public void increaseIncreaseDepositCount() {
+        increaseDepositCount++;
+    }
+
+    public void increaseReceiveCount() {
+        receiveCount++;
+    }
+
+    public void increaseReceiveToCount() {
+        receiveToCount++;
+    }
+
+    public void increaseReceiveAndApproveCount() {
+        receiveAndApproveCount++;
+    }
+
+    public void increaseQuitCount() {
+        quitCount++;
+    }
+
+    public void recordSettle(int cycles) {
+        settleCount++;
+        settleCycles += cycles;
+        if (cycles > maxSettleCycles) {
+            maxSettleCycles = cycles;
+        }
+    }
+
+    public long getDepositCount() {
+        return depositCount;
+    }
+
+    public long getIncreaseDepositCount() {
+        return increaseDepositCount;
+    }
+
+    public long getReceiveCount() {
+        return receiveCount;
+    }
+
+    public long getReceiveToCount() {
+        return receiveToCount;
+    }
+
+    public long getReceiveAndApproveCount() {
+        return receiveAndApproveCount;
+    }
+
+    public long getQuitCount() {
+        return quitCount;
+    }
+
+    public long getSettleCount() {
+        return settleCount;
+    }
+
+    public long getSettleCycles() {
+        return settleCycles;
+    }
+
+    public int getMaxSettleCycles() {
+        return maxSettleCycles;
+    }
+}
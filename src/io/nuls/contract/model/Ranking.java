@@ -0,0 +1,130 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 定长排行榜，按数值从大到小排列，最多保留 capacity 个条目
+ * 条目的数值只增不减，被挤出或未能进入排行的地址数值都不大于 floor，因此排行中数值不小于 floor 的条目就是准确的前几名
+ * capacity 应比需要展示的条目数量多留一些余量，使排行中的地址被移除后仍有足够的准确条目
+ */
+public class Ranking {
+    // 最大条目数量
+    private int capacity;
+    // 排行条目，按数值降序
+    private List<RankingItem> items;
+    // 不在排行中的地址数值的上限
+    private BigInteger floor = BigInteger.ZERO;
+    // 重建期间被挤出或未能进入排行的最大数值，未在重建时为null
+    private BigInteger rebuildFloor;
+
+    public Ranking(int capacity) {
+        this.capacity = capacity;
+        this.items = new ArrayList<RankingItem>();
+    }
+
+    /**
+     *  更新地址的排行数值，数值不足以进入排行时忽略
+     */
+    public void update(String address, BigInteger value) {
+        int index = indexOf(address);
+        if (index != -1) {
+            items.remove(index);
+        }
+        if (items.size() >= capacity && value.compareTo(items.get(items.size() - 1).getValue()) <= 0) {
+            raiseFloor(value);
+            return;
+        }
+        int position = items.size();
+        while (position > 0 && value.compareTo(items.get(position - 1).getValue()) > 0) {
+            position--;
+        }
+        items.add(position, new RankingItem(address, value));
+        if (items.size() > capacity) {
+            raiseFloor(items.remove(items.size() - 1).getValue());
+        }
+    }
+
+    /**
+     *  移除地址
+     */
+    public void remove(String address) {
+        int index = indexOf(address);
+        if (index != -1) {
+            items.remove(index);
+        }
+    }
+
+    /**
+     *  开始重建，之后应对所有地址调用 update，再调用 finishRebuild
+     */
+    public void beginRebuild() {
+        rebuildFloor = BigInteger.ZERO;
+    }
+
+    /**
+     *  完成重建，所有地址都已在重建期间更新过，floor 降为重建期间被挤出的最大数值
+     */
+    public void finishRebuild() {
+        if (rebuildFloor != null) {
+            floor = rebuildFloor;
+            rebuildFloor = null;
+        }
+    }
+
+    /**
+     *  排行前 size 名中可以确定的条目，数值小于 floor 的条目可能排在不在排行中的地址之后，不返回
+     */
+    public List<RankingItem> getTop(int size) {
+        List<RankingItem> top = new ArrayList<RankingItem>();
+        for (RankingItem item : items) {
+            if (top.size() >= size || item.getValue().compareTo(floor) < 0) {
+                break;
+            }
+            top.add(item);
+        }
+        return top;
+    }
+
+    private void raiseFloor(BigInteger value) {
+        if (value.compareTo(floor) > 0) {
+            floor = value;
+        }
+        if (rebuildFloor != null && value.compareTo(rebuildFloor) > 0) {
+            rebuildFloor = value;
+        }
+    }
+
+    private int indexOf(String address) {
+        for (int i = 0, size = items.size(); i < size; i++) {
+            if (items.get(i).getAddress().equals(address)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * 奖励明细，价格相同的连续发放周期合并为一条
+ */
+public class RewardStatement {
+    // 第一个周期的发放高度
+    private long startHeight;
+    // 最后一个周期的发放高度
+    private long endHeight;
+    // 周期数
+    private int cycles;
+    // 价格，每个NULS可挖出XX个token
+    private BigDecimal price;
+    // 奖励合计
+    private BigInteger reward;
+
+    public RewardStatement(long startHeight, long endHeight, int cycles, BigDecimal price, BigInteger reward) {
+        this.startHeight = startHeight;
+        this.endHeight = endHeight;
+        this.cycles = cycles;
+        this.price = price;
+        this.reward = reward;
+    }
+
+    public long getStartHeight() {
+        return startHeight;
+    }
+
+    public void setStartHeight(long startHeight) {
+        this.startHeight = startHeight;
+    }
+
+    public long getEndHeight() {
+        return endHeight;
+    }
+
+    public void setEndHeight(long endHeight) {
+        this.endHeight = endHeight;
+    }
+
+    public int getCycles() {
+        return cycles;
+    }
+
+    public void setCycles(int cycles) {
+        this.cycles = cycles;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public BigInteger getReward() {
+        return reward;
+    }
+
+    public void setReward(BigInteger reward) {
+        this.reward = reward;
+    }
+}
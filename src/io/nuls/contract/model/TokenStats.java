@@ -0,0 +1,80 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.model;
+
+/**
+ * token 调用统计
+ */
+public class TokenStats {
+    // transfer 调用次数
+    private long transferCount;
+    // transferFrom 调用次数
+    private long transferFromCount;
+    // approve 调用次数
+    private long approveCount;
+    // increaseApproval 调用次数
+    private long increaseApprovalCount;
+    // decreaseApproval 调用次数
+    private long decreaseApprovalCount;
+
+    public void increaseTransferCount() {
+        transferCount++;
+    }
+
+    public void increaseTransferFromCount() {
+        transferFromCount++;
+    }
+
+    public void increaseApproveCount() {
+        approveCount++;
+    }
+
+    public void increaseIncreaseApprovalCount() {
+        increaseApprovalCount++;
+    }
+
+    public void increaseDecreaseApprovalCount() {
+        decreaseApprovalCount++;
+    }
+
+    public long getTransferCount() {
+        return transferCount;
+    }
+
+    public long getTransferFromCount() {
+        return transferFromCount;
+    }
+
+    public long getApproveCount() {
+        return approveCount;
+    }
+
+    public long getIncreaseApprovalCount() {
+        return increaseApprovalCount;
+    }
+
+    public long getDecreaseApprovalCount() {
+        return decreaseApprovalCount;
+    }
+}
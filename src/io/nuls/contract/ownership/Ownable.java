@@ -59,7 +59,7 @@ public class Ownable {
     /**
      * 转移owner
      */
-    class OwnershipTransferredEvent implements Event {
+    public class OwnershipTransferredEvent implements Event {
 
         //先前拥有者
         private Address previousOwner;
@@ -121,7 +121,7 @@ public class Ownable {
     /**
      * 放弃拥有者
      */
-    class OwnershipRenouncedEvent implements Event {
+    public class OwnershipRenouncedEvent implements Event {
 
         // 先前拥有者
         private Address previousOwner;
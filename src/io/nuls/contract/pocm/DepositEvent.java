@@ -0,0 +1,118 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Event;
+
+import java.math.BigInteger;
+
+/**
+ * 抵押，包括首次抵押、追加抵押和迁移导入
+ */
+public class DepositEvent implements Event {
+
+    // 用户
+    private Address user;
+
+    // 本次金额
+    private BigInteger value;
+
+    // 总抵押金额
+    private BigInteger totalDeposit;
+
+    // 总抵押地址数量
+    private int totalDepositAddressCount;
+
+    public DepositEvent(Address user, BigInteger value, BigInteger totalDeposit, int totalDepositAddressCount) {
+        this.user = user;
+        this.value = value;
+        this.totalDeposit = totalDeposit;
+        this.totalDepositAddressCount = totalDepositAddressCount;
+    }
+
+    public Address getUser() {
+        return user;
+    }
+
+    public void setUser(Address user) {
+        this.user = user;
+    }
+
+    public BigInteger getValue() {
+        return value;
+    }
+
+    public void setValue(BigInteger value) {
+        this.value = value;
+    }
+
+    public BigInteger getTotalDeposit() {
+        return totalDeposit;
+    }
+
+    public void setTotalDeposit(BigInteger totalDeposit) {
+        this.totalDeposit = totalDeposit;
+    }
+
+    public int getTotalDepositAddressCount() {
+        return totalDepositAddressCount;
+    }
+
+    public void setTotalDepositAddressCount(int totalDepositAddressCount) {
+        this.totalDepositAddressCount = totalDepositAddressCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        DepositEvent that = (DepositEvent) o;
+
+        if (totalDepositAddressCount != that.totalDepositAddressCount) return false;
+        if (user != null ? !user.equals(that.user) : that.user != null) return false;
+        if (value != null ? !value.equals(that.value) : that.value != null) return false;
+        return totalDeposit != null ? totalDeposit.equals(that.totalDeposit) : that.totalDeposit == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = user != null ? user.hashCode() : 0;
+        result = 31 * result + (value != null ? value.hashCode() : 0);
+        result = 31 * result + (totalDeposit != null ? totalDeposit.hashCode() : 0);
+        result = 31 * result + totalDepositAddressCount;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "DepositEvent{" +
+                "user=" + user +
+                ", value=" + value +
+                ", totalDeposit=" + totalDeposit +
+                ", totalDepositAddressCount=" + totalDepositAddressCount +
+                '}';
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.model.MiningInfo;
+import io.nuls.contract.sdk.Address;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.nuls.contract.sdk.Utils.emit;
+import static io.nuls.contract.sdk.Utils.require;
+
+/**
+ * 抵押账目，包含用户抵押信息、抵押总额和锁定检查，抵押、追加抵押、导入和退还抵押时发出对应事件
+ */
+public class DepositLedger {
+
+    // 最低抵押NULS数量
+    private BigInteger minimumDeposit;
+    // 最短锁定区块（参数类型为数字，XXXXX块后才可退出抵押）
+    private int minimumLocked;
+    // 最大抵押地址数量（可选参数）
+    private int maximumDepositAddressCount;
+
+    // 用户抵押信息
+    private Map<String, MiningInfo> users = new HashMap<String, MiningInfo>();
+    // 总抵押金额
+    private BigInteger totalDeposit = BigInteger.ZERO;
+    // 总抵押地址数量
+    private int totalDepositAddressCount;
+
+    public DepositLedger(BigInteger minimumDeposit, int minimumLocked, int maximumDepositAddressCount) {
+        this.minimumDeposit = minimumDeposit;
+        this.minimumLocked = minimumLocked;
+        this.maximumDepositAddressCount = maximumDepositAddressCount;
+    }
+
+    public BigInteger getMinimumDeposit() {
+        return minimumDeposit;
+    }
+
+    public int getMinimumLocked() {
+        return minimumLocked;
+    }
+
+    public int getMaximumDepositAddressCount() {
+        return maximumDepositAddressCount;
+    }
+
+    public Map<String, MiningInfo> getUsers() {
+        return users;
+    }
+
+    public BigInteger getTotalDeposit() {
+        return totalDeposit;
+    }
+
+    public int getTotalDepositAddressCount() {
+        return totalDepositAddressCount;
+    }
+
+    /**
+     *  用户的抵押信息，用户未参与时失败
+     */
+    public MiningInfo get(Address user) {
+        MiningInfo miningInfo = users.get(user.toString());
+        require(miningInfo != null, "此用户未参与");
+        return miningInfo;
+    }
+
+    /**
+     *  首次抵押
+     */
+    public MiningInfo deposit(Address user, BigInteger value, long height) {
+        require(totalDepositAddressCount + 1 <= maximumDepositAddressCount, "超过最大抵押地址数量");
+        String userStr = user.toString();
+        require(!users.containsKey(userStr), "不可重复抵押");
+        require(value.compareTo(minimumDeposit) > 0, "未达到最低抵押值");
+        MiningInfo info = new MiningInfo();
+        info.setDepositAmount(value);
+        info.setDepositHeight(height);
+        info.setDepositChangeHeight(height);
+        users.put(userStr, info);
+        totalDeposit = totalDeposit.add(value);
+        totalDepositAddressCount += 1;
+        emit(new DepositEvent(user, value, totalDeposit, totalDepositAddressCount));
+        return info;
+    }
+
+    /**
+     *  追加抵押，调用前应先结算该用户的奖励
+     */
+    public void increaseDeposit(Address user, MiningInfo info, BigInteger value, long height) {
+        info.setDepositAmount(info.getDepositAmount().add(value));
+        info.setDepositChangeHeight(height);
+        totalDeposit = totalDeposit.add(value);
+        emit(new DepositEvent(user, value, totalDeposit, totalDepositAddressCount));
+    }
+
+    /**
+     *  导入旧合约的用户抵押信息
+     */
+    public void importUser(Address user, MiningInfo info) {
+        String userStr = user.toString();
+        require(!users.containsKey(userStr), "不可重复抵押");
+        require(totalDepositAddressCount + 1 <= maximumDepositAddressCount, "超过最大抵押地址数量");
+        users.put(userStr, info);
+        totalDeposit = totalDeposit.add(info.getDepositAmount());
+        totalDepositAddressCount += 1;
+        emit(new DepositEvent(user, info.getDepositAmount(), totalDeposit, totalDepositAddressCount));
+        emit(new ImportUserEvent(user, info));
+    }
+
+    /**
+     *  检查抵押已解锁
+     */
+    public void checkUnlocked(MiningInfo miningInfo, long currentHeight) {
+        long unLockedHeight = miningInfo.getDepositHeight() + minimumLocked + 1;
+        require(unLockedHeight <= currentHeight, "挖矿锁定中, 解锁高度是 " + unLockedHeight);
+    }
+
+    /**
+     *  移除用户并退还抵押，返回退还的金额
+     */
+    public BigInteger refund(Address user, MiningInfo miningInfo) {
+        BigInteger deposit = miningInfo.getDepositAmount();
+        totalDeposit = totalDeposit.subtract(deposit);
+        totalDepositAddressCount -= 1;
+        users.remove(user.toString());
+        emit(new QuitEvent(user, deposit, totalDeposit, totalDepositAddressCount));
+        user.transfer(deposit);
+        return deposit;
+    }
+}
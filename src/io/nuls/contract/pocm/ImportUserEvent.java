@@ -0,0 +1,179 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.model.MiningInfo;
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Event;
+
+import java.math.BigInteger;
+
+/**
+ * 迁移导入用户，携带导入的完整挖矿信息
+ */
+public class ImportUserEvent implements Event {
+
+    // 用户
+    private Address user;
+
+    // 抵押金额
+    private BigInteger depositAmount;
+
+    // 抵押开始高度
+    private long depositHeight;
+
+    // 总挖矿金额
+    private BigInteger totalMining;
+
+    // 已领取挖矿金额
+    private BigInteger receivedMining;
+
+    // 挖矿次数
+    private int miningCount;
+
+    // 下次挖矿高度
+    private long nextMiningHeight;
+
+    // 最近一次抵押金额变更的高度
+    private long depositChangeHeight;
+
+    public ImportUserEvent(Address user, MiningInfo miningInfo) {
+        this.user = user;
+        this.depositAmount = miningInfo.getDepositAmount();
+        this.depositHeight = miningInfo.getDepositHeight();
+        this.totalMining = miningInfo.getTotalMining();
+        this.receivedMining = miningInfo.getReceivedMining();
+        this.miningCount = miningInfo.getMiningCount();
+        this.nextMiningHeight = miningInfo.getNextMiningHeight();
+        this.depositChangeHeight = miningInfo.getDepositChangeHeight();
+    }
+
+    public Address getUser() {
+        return user;
+    }
+
+    public void setUser(Address user) {
+        this.user = user;
+    }
+
+    public BigInteger getDepositAmount() {
+        return depositAmount;
+    }
+
+    public void setDepositAmount(BigInteger depositAmount) {
+        this.depositAmount = depositAmount;
+    }
+
+    public long getDepositHeight() {
+        return depositHeight;
+    }
+
+    public void setDepositHeight(long depositHeight) {
+        this.depositHeight = depositHeight;
+    }
+
+    public BigInteger getTotalMining() {
+        return totalMining;
+    }
+
+    public void setTotalMining(BigInteger totalMining) {
+        this.totalMining = totalMining;
+    }
+
+    public BigInteger getReceivedMining() {
+        return receivedMining;
+    }
+
+    public void setReceivedMining(BigInteger receivedMining) {
+        this.receivedMining = receivedMining;
+    }
+
+    public int getMiningCount() {
+        return miningCount;
+    }
+
+    public void setMiningCount(int miningCount) {
+        this.miningCount = miningCount;
+    }
+
+    public long getNextMiningHeight() {
+        return nextMiningHeight;
+    }
+
+    public void setNextMiningHeight(long nextMiningHeight) {
+        this.nextMiningHeight = nextMiningHeight;
+    }
+
+    public long getDepositChangeHeight() {
+        return depositChangeHeight;
+    }
+
+    public void setDepositChangeHeight(long depositChangeHeight) {
+        this.depositChangeHeight = depositChangeHeight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ImportUserEvent that = (ImportUserEvent) o;
+
+        if (depositHeight != that.depositHeight) return false;
+        if (miningCount != that.miningCount) return false;
+        if (nextMiningHeight != that.nextMiningHeight) return false;
+        if (depositChangeHeight != that.depositChangeHeight) return false;
+        if (user != null ? !user.equals(that.user) : that.user != null) return false;
+        if (depositAmount != null ? !depositAmount.equals(that.depositAmount) : that.depositAmount != null) return false;
+        if (totalMining != null ? !totalMining.equals(that.totalMining) : that.totalMining != null) return false;
+        return receivedMining != null ? receivedMining.equals(that.receivedMining) : that.receivedMining == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = user != null ? user.hashCode() : 0;
+        result = 31 * result + (depositAmount != null ? depositAmount.hashCode() : 0);
+        result = 31 * result + (int) (depositHeight ^ (depositHeight >>> 32));
+        result = 31 * result + (totalMining != null ? totalMining.hashCode() : 0);
+        result = 31 * result + (receivedMining != null ? receivedMining.hashCode() : 0);
+        result = 31 * result + miningCount;
+        result = 31 * result + (int) (nextMiningHeight ^ (nextMiningHeight >>> 32));
+        result = 31 * result + (int) (depositChangeHeight ^ (depositChangeHeight >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportUserEvent{" +
+                "user=" + user +
+                ", depositAmount=" + depositAmount +
+                ", depositHeight=" + depositHeight +
+                ", totalMining=" + totalMining +
+                ", receivedMining=" + receivedMining +
+                ", miningCount=" + miningCount +
+                ", nextMiningHeight=" + nextMiningHeight +
+                ", depositChangeHeight=" + depositChangeHeight +
+                '}';
+    }
+}
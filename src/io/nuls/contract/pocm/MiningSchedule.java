@@ -0,0 +1,166 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.model.MiningInfo;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static io.nuls.contract.util.PocmUtil.toNuls;
+
+/**
+ * 挖矿奖励计划，包含价格、发放周期和减半周期的计算
+ */
+public class MiningSchedule {
+
+    // 合约创建高度
+    private final long createHeight;
+    // 初始价格，每个NULS可挖出XX个token
+    private BigDecimal initialPrice;
+    // 奖励发放周期（参数类型为数字，每过XXXX块发放一次）
+    private int awardingCycle;
+    // 奖励减半周期（可选参数，若选择，则参数类型为数字，每XXXXX块奖励减半）
+    private int rewardHalvingCycle;
+    // 奖励token的小数位数
+    private int decimals;
+
+    public MiningSchedule(long createHeight, BigDecimal initialPrice, int awardingCycle, int rewardHalvingCycle, int decimals) {
+        this.createHeight = createHeight;
+        this.initialPrice = initialPrice;
+        this.awardingCycle = awardingCycle;
+        this.rewardHalvingCycle = rewardHalvingCycle;
+        this.decimals = decimals;
+    }
+
+    public long getCreateHeight() {
+        return createHeight;
+    }
+
+    public BigDecimal getInitialPrice() {
+        return initialPrice;
+    }
+
+    public int getAwardingCycle() {
+        return awardingCycle;
+    }
+
+    public int getRewardHalvingCycle() {
+        return rewardHalvingCycle;
+    }
+
+    public int getDecimals() {
+        return decimals;
+    }
+
+    /**
+     *  计算截至当前高度未发放的挖矿奖励，并更新挖矿次数和下次挖矿高度
+     */
+    public BigInteger calcMining(MiningInfo miningInfo, long currentHeight) {
+        BigInteger mining = BigInteger.ZERO;
+
+        long nextMiningHeight = miningInfo.getNextMiningHeight();
+        long depositHeight = miningInfo.getDepositHeight();
+        BigDecimal depositAmountNULS = toNuls(miningInfo.getDepositAmount());
+        int miningCount = miningInfo.getMiningCount();
+        if(nextMiningHeight == 0) {
+            nextMiningHeight = depositHeight + awardingCycle + 1;
+        }
+        BigDecimal currentPrice;
+        int i = 0;
+        while (nextMiningHeight <= currentHeight) {
+            i++;
+            currentPrice = calcPrice(nextMiningHeight);
+            mining = mining.add(depositAmountNULS.multiply(currentPrice).scaleByPowerOfTen(decimals).toBigInteger());
+            nextMiningHeight += awardingCycle + 1;
+        }
+        miningInfo.setMiningCount(miningCount + i);
+        miningInfo.setNextMiningHeight(nextMiningHeight);
+        return mining;
+    }
+
+    /**
+     *  用户已结算到的高度，此高度之前的奖励已发放
+     */
+    public long lastSettledHeight(MiningInfo miningInfo) {
+        long nextMiningHeight = miningInfo.getNextMiningHeight();
+        if (nextMiningHeight == 0) {
+            return miningInfo.getDepositHeight();
+        }
+        return nextMiningHeight - awardingCycle - 1;
+    }
+
+    /**
+     *  用户抵押NULS数量与其已结算高度累计价格的乘积
+     */
+    public BigDecimal settledWeight(MiningInfo miningInfo) {
+        return toNuls(miningInfo.getDepositAmount()).multiply(accumulatedPrice(lastSettledHeight(miningInfo)));
+    }
+
+    /**
+     *  从合约创建高度（不含）到指定高度（含）每个区块价格的累计值
+     */
+    public BigDecimal accumulatedPrice(long height) {
+        BigDecimal accumulated = BigDecimal.ZERO;
+        BigDecimal currentPrice = this.initialPrice;
+        BigDecimal d = BigDecimal.valueOf(2L);
+        long startHeight = this.createHeight + 1;
+        long triggerHeight = this.createHeight + this.rewardHalvingCycle + 1;
+        while (startHeight <= height) {
+            long endHeight = triggerHeight - 1 < height ? triggerHeight - 1 : height;
+            if (endHeight >= startHeight) {
+                accumulated = accumulated.add(currentPrice.multiply(BigDecimal.valueOf(endHeight - startHeight + 1)));
+            }
+            startHeight = triggerHeight;
+            currentPrice = currentPrice.divide(d);
+            triggerHeight += this.rewardHalvingCycle + 1;
+        }
+        return accumulated;
+    }
+
+    /**
+     *  指定高度之后的第一个减半高度
+     */
+    public long nextHalvingHeight(long height) {
+        long halvingInterval = this.rewardHalvingCycle + 1;
+        if (height < this.createHeight) {
+            return this.createHeight + halvingInterval;
+        }
+        return this.createHeight + ((height - this.createHeight) / halvingInterval + 1) * halvingInterval;
+    }
+
+    public BigDecimal calcPrice(long currentHeight) {
+        long triggerHeight = this.createHeight + this.rewardHalvingCycle + 1;
+        BigDecimal currentPrice = this.initialPrice;
+        BigDecimal d = null;
+        while(triggerHeight <= currentHeight) {
+            if(d == null) {
+                d = BigDecimal.valueOf(2L);
+            }
+            currentPrice = currentPrice.divide(d);
+            triggerHeight += this.rewardHalvingCycle + 1;
+        }
+        return currentPrice;
+    }
+}
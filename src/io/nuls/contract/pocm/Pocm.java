@@ -23,21 +23,34 @@
  */
 package io.nuls.contract.pocm;
 
+import io.nuls.contract.model.ExportPage;
+import io.nuls.contract.model.MerkleProof;
+import io.nuls.contract.model.MerkleTree;
 import io.nuls.contract.model.MiningInfo;
+import io.nuls.contract.model.PoolStats;
+import io.nuls.contract.model.Ranking;
+import io.nuls.contract.model.RankingItem;
+import io.nuls.contract.model.RewardStatement;
 import io.nuls.contract.sdk.Address;
 import io.nuls.contract.sdk.Block;
 import io.nuls.contract.sdk.Msg;
 import io.nuls.contract.sdk.annotation.Payable;
+import io.nuls.contract.sdk.annotation.Required;
 import io.nuls.contract.sdk.annotation.View;
 import io.nuls.contract.token.SimpleToken;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static io.nuls.contract.sdk.Utils.emit;
 import static io.nuls.contract.sdk.Utils.require;
+import static io.nuls.contract.util.PocmUtil.checkMaximumDecimals;
+import static io.nuls.contract.util.PocmUtil.decodeMiningInfo;
+import static io.nuls.contract.util.PocmUtil.encodeMiningInfo;
 import static io.nuls.contract.util.PocmUtil.toNa;
 import static io.nuls.contract.util.PocmUtil.toNuls;
 
@@ -47,54 +60,48 @@ import static io.nuls.contract.util.PocmUtil.toNuls;
  */
 public class Pocm extends SimpleToken {
 
-    // 合约创建高度
-    private final long createHeight;
-    // 初始价格，每个NULS可挖出XX个token
-    private BigDecimal initialPrice;
-    // 奖励发放周期（参数类型为数字，每过XXXX块发放一次）
-    private int awardingCycle;
-    // 奖励减半周期（可选参数，若选择，则参数类型为数字，每XXXXX块奖励减半）
-    private int rewardHalvingCycle;
-    // 最低抵押NULS数量
-    private BigInteger minimumDeposit;
-    // 最短锁定区块（参数类型为数字，XXXXX块后才可退出抵押）
-    private int minimumLocked;
-    // 最大抵押地址数量（可选参数）
-    private int maximumDepositAddressCount;
-
-    // 用户抵押信息
-    private Map<String, MiningInfo> users = new HashMap<String, MiningInfo>();
-
-    // 总抵押金额
-    private BigInteger totalDeposit;
-    // 总抵押地址数量
-    private int totalDepositAddressCount;
+    // 排行榜条目数量
+    private static final int RANKING_SIZE = 20;
+    // 排行榜额外保留的条目数量，排行中的用户退出后由这些条目补足
+    private static final int RANKING_BUFFER_SIZE = 20;
+
+    // 挖矿奖励计划（合约创建高度、初始价格、奖励发放周期、奖励减半周期）
+    private MiningSchedule schedule;
+    // 抵押账目（用户抵押信息、抵押总额、最低抵押、锁定区块、最大抵押地址数量）
+    private DepositLedger ledger;
+
+    // 用户抵押信息默克尔树
+    private MerkleTree userTree = new MerkleTree();
+    // 抵押信息已变更、尚未提交到默克尔树的用户
+    private Map<String, Boolean> uncommittedUsers = new HashMap<String, Boolean>();
+    // 已领取的挖矿奖励总额
+    private BigInteger totalReceivedMining = BigInteger.ZERO;
+    // 所有用户的抵押NULS数量与其已结算高度累计价格的乘积之和，用于计算未领取的累计奖励
+    private BigDecimal settledPriceWeight = BigDecimal.ZERO;
+    // 是否已导入过用户，导入用户后不可再修改创建高度
+    private boolean usersImported;
+
+    // 抵押金额排行
+    private Ranking depositRanking = new Ranking(RANKING_SIZE + RANKING_BUFFER_SIZE);
+    // 挖矿总额排行
+    private Ranking miningRanking = new Ranking(RANKING_SIZE + RANKING_BUFFER_SIZE);
+    // 用户加入或退出的次数，用于判断排行重建期间用户是否有变化
+    private int usersVersion;
+    // 正在进行的排行重建开始时的 usersVersion 和下一页游标
+    private int rankingRebuildVersion;
+    private int rankingRebuildCursor;
+    // 挖矿池调用统计，token 的调用统计见 stats()
+    private PoolStats poolStats = new PoolStats();
 
 
     public Pocm(String name, String symbol, BigInteger initialAmount, int decimals,
                 BigDecimal price, int awardingCycle, int rewardHalvingCycle,
-                BigDecimal minimumDepositNULS, int minimumLocked, int maximumDepositAddressCount) {
-        super(name, symbol, initialAmount, decimals);
+                BigDecimal minimumDepositNULS, int minimumLocked, int maximumDepositAddressCount, boolean importable) {
+        super(name, symbol, initialAmount, decimals, importable);
         // 检查 price 小数位不得大于decimals
         require(checkMaximumDecimals(price, decimals), "最多" + decimals + "位小数");
-        this.createHeight = Block.number();
-        this.totalDeposit = BigInteger.ZERO;
-        this.totalDepositAddressCount = 0;
-        this.initialPrice = price;
-        this.awardingCycle = awardingCycle;
-        this.rewardHalvingCycle = rewardHalvingCycle;
-        this.minimumDeposit = toNa(minimumDepositNULS);
-        this.minimumLocked = minimumLocked;
-        this.maximumDepositAddressCount = maximumDepositAddressCount;
-    }
-
-    private static boolean checkMaximumDecimals(BigDecimal price, int decimals) {
-        BigInteger a = price.movePointRight(decimals).toBigInteger().multiply(BigInteger.TEN);
-        BigInteger b = price.movePointRight(decimals + 1).toBigInteger();
-        if(a.compareTo(b) != 0) {
-            return false;
-        }
-        return true;
+        this.schedule = new MiningSchedule(Block.number(), price, awardingCycle, rewardHalvingCycle, decimals);
+        this.ledger = new DepositLedger(toNa(minimumDepositNULS), minimumLocked, maximumDepositAddressCount);
     }
 
     /**
@@ -102,18 +109,15 @@ public class Pocm extends SimpleToken {
      */
     @Payable
     public MiningInfo deposit() {
-        require(totalDepositAddressCount + 1 <= maximumDepositAddressCount, "超过最大抵押地址数量");
+        closeImportOnUse();
         Address user = Msg.sender();
         String userStr = user.toString();
-        require(!users.containsKey(userStr), "不可重复抵押");
-        BigInteger value = Msg.value();
-        require(value.compareTo(minimumDeposit) > 0, "未达到最低抵押值");
-        MiningInfo info = new MiningInfo();
-        info.setDepositAmount(value);
-        info.setDepositHeight(Block.number());
-        users.put(userStr, info);
-        totalDeposit = totalDeposit.add(value);
-        totalDepositAddressCount += 1;
+        MiningInfo info = ledger.deposit(user, Msg.value(), Block.number());
+        usersVersion++;
+        settledPriceWeight = settledPriceWeight.add(schedule.settledWeight(info));
+        depositRanking.update(userStr, info.getDepositAmount());
+        uncommittedUsers.put(userStr, Boolean.TRUE);
+        poolStats.increaseDepositCount();
         return info;
     }
 
@@ -122,10 +126,16 @@ public class Pocm extends SimpleToken {
      */
     @Payable
     public MiningInfo increaseDeposit() {
-        MiningInfo info = receive();
+        closeImportOnUse();
+        Address user = Msg.sender();
+        MiningInfo info = ledger.get(user);
+        this.receive(user, info, user);
         BigInteger value = Msg.value();
-        info.setDepositAmount(info.getDepositAmount().add(value));
-        totalDeposit = totalDeposit.add(value);
+        ledger.increaseDeposit(user, info, value, Block.number());
+        settledPriceWeight = settledPriceWeight.add(toNuls(value).multiply(schedule.accumulatedPrice(schedule.lastSettledHeight(info))));
+        depositRanking.update(user.toString(), info.getDepositAmount());
+        uncommittedUsers.put(user.toString(), Boolean.TRUE);
+        poolStats.increaseIncreaseDepositCount();
         return info;
     }
 
@@ -133,21 +143,23 @@ public class Pocm extends SimpleToken {
      *  退出
      */
     public MiningInfo quit() {
+        closeImportOnUse();
         Address user = Msg.sender();
-        MiningInfo miningInfo = getMiningInfo(user);
-
-        long unLockedHeight = checkLocked(miningInfo);
-        require(unLockedHeight == -1, "挖矿锁定中, 解锁高度是 " + unLockedHeight);
+        MiningInfo miningInfo = ledger.get(user);
+        ledger.checkUnlocked(miningInfo, Block.number());
         // 发放奖励
-        this.receive(user, miningInfo);
+        this.receive(user, miningInfo, user);
 
-        // 退押金
-        BigInteger deposit = miningInfo.getDepositAmount();
-        totalDeposit = totalDeposit.subtract(deposit);
-        totalDepositAddressCount -= 1;
+        settledPriceWeight = settledPriceWeight.subtract(schedule.settledWeight(miningInfo));
+        String userStr = user.toString();
+        usersVersion++;
+        uncommittedUsers.put(userStr, Boolean.TRUE);
+        depositRanking.remove(userStr);
+        miningRanking.remove(userStr);
+        poolStats.increaseQuitCount();
         //TODO pierre 退出后是否保留该账户的挖矿记录
-        users.remove(user.toString());
-        Msg.sender().transfer(deposit);
+        // 退押金
+        ledger.refund(user, miningInfo);
         return miningInfo;
     }
 
@@ -155,23 +167,211 @@ public class Pocm extends SimpleToken {
      *  领取奖励
      */
     public MiningInfo receive() {
+        closeImportOnUse();
+        Address user = Msg.sender();
+        MiningInfo miningInfo = ledger.get(user);
+        this.receive(user, miningInfo, user);
+        poolStats.increaseReceiveCount();
+        return miningInfo;
+    }
+
+    /**
+     *  领取奖励并直接发放到指定地址
+     */
+    public MiningInfo receiveTo(@Required Address to) {
+        closeImportOnUse();
+        Address user = Msg.sender();
+        MiningInfo miningInfo = ledger.get(user);
+        this.receive(user, miningInfo, to);
+        poolStats.increaseReceiveToCount();
+        return miningInfo;
+    }
+
+    /**
+     *  领取奖励，并将本次领取的数量追加授权给 spender
+     */
+    public MiningInfo receiveAndApprove(@Required Address spender) {
+        closeImportOnUse();
         Address user = Msg.sender();
-        MiningInfo miningInfo = getMiningInfo(user);
-        this.receive(user, miningInfo);
+        MiningInfo miningInfo = ledger.get(user);
+        BigInteger thisMining = this.receive(user, miningInfo, user);
+        addAllowed(user, spender, thisMining);
+        emit(new ApprovalEvent(user, spender, allowance(user, spender)));
+        poolStats.increaseReceiveAndApproveCount();
         return miningInfo;
     }
 
+    /**
+     *  导入旧合约的创建高度，使奖励价格和减半计划从旧合约延续，仅可在导入用户之前调用
+     *  导入在首次抵押时关闭，因此调用时不会有通过 deposit 抵押的用户
+     */
+    public void importCreateHeight(long createHeight) {
+        onlyImportable();
+        require(!usersImported, "已导入用户，不可修改创建高度");
+        require(createHeight <= Block.number(), "创建高度不可大于当前高度");
+        this.schedule = new MiningSchedule(createHeight, schedule.getInitialPrice(), schedule.getAwardingCycle(),
+                schedule.getRewardHalvingCycle(), schedule.getDecimals());
+    }
+
+    /**
+     *  批量导入用户抵押信息，用于从旧版本合约迁移
+     *  记录格式为 address,depositAmount,depositHeight,totalMining,receivedMining,miningCount,nextMiningHeight,depositChangeHeight
+     *  需同时转入这批用户的抵押总额；导入前应先通过 importCreateHeight 延续旧合约的奖励减半计划
+     */
+    @Payable
+    public void importUsers(String records) {
+        onlyImportable();
+        usersImported = true;
+        BigInteger importedDeposit = BigInteger.ZERO;
+        String[] items = records.split(";");
+        for (String item : items) {
+            String[] fields = item.split(",");
+            require(fields.length == 8, "无效的用户记录");
+            Address user = new Address(fields[0]);
+            String userStr = user.toString();
+            MiningInfo info = decodeMiningInfo(fields, 1);
+            ledger.importUser(user, info);
+            usersVersion++;
+            uncommittedUsers.put(userStr, Boolean.TRUE);
+            importedDeposit = importedDeposit.add(info.getDepositAmount());
+            totalReceivedMining = totalReceivedMining.add(info.getReceivedMining());
+            settledPriceWeight = settledPriceWeight.add(schedule.settledWeight(info));
+            depositRanking.update(userStr, info.getDepositAmount());
+            if (info.getTotalMining().compareTo(BigInteger.ZERO) > 0) {
+                miningRanking.update(userStr, info.getTotalMining());
+            }
+        }
+        require(Msg.value().compareTo(importedDeposit) == 0, "转入金额与导入的抵押总额不一致");
+    }
+
+    /**
+     *  分页导出用户抵押信息，记录格式同 importUsers
+     */
+    @View
+    public ExportPage exportUsers(int cursor, int limit) {
+        checkPage(cursor, limit);
+        StringBuilder records = new StringBuilder();
+        int index = 0;
+        int end = cursor + limit;
+        for (Map.Entry<String, MiningInfo> entry : ledger.getUsers().entrySet()) {
+            if (index >= end) {
+                return new ExportPage(end, records.toString());
+            }
+            if (index >= cursor) {
+                if (records.length() > 0) {
+                    records.append(';');
+                }
+                records.append(entry.getKey()).append(',').append(encodeMiningInfo(entry.getValue()));
+            }
+            index++;
+        }
+        return new ExportPage(-1, records.toString());
+    }
+
+    /**
+     *  将已变更的用户抵押信息提交到默克尔树，每次最多提交 limit 个用户，任何人都可调用，返回剩余未提交的用户数量
+     */
+    public int commitUsers(int limit) {
+        require(limit > 0);
+        List<String> userStrs = new ArrayList<String>();
+        for (String userStr : uncommittedUsers.keySet()) {
+            if (userStrs.size() >= limit) {
+                break;
+            }
+            userStrs.add(userStr);
+        }
+        for (String userStr : userStrs) {
+            uncommittedUsers.remove(userStr);
+            MiningInfo info = ledger.getUsers().get(userStr);
+            userTree.update(userStr, info == null ? null : encodeMiningInfo(info));
+        }
+        return uncommittedUsers.size();
+    }
+
+    @View
+    public int uncommittedUserCount() {
+        return uncommittedUsers.size();
+    }
+
+    /**
+     *  已提交抵押信息的默克尔树根，叶子为 sha3(address + "," + 挖矿信息编码)，挖矿信息编码同 exportUsers
+     *  uncommittedUserCount() 为0时与当前抵押信息一致
+     */
+    @View
+    public String usersRoot() {
+        return userTree.getRoot();
+    }
+
+    /**
+     *  已提交抵押信息的默克尔包含证明，value 为提交时的挖矿信息编码，用户不在树中时返回null
+     */
+    @View
+    public MerkleProof userProof(Address user) {
+        return userTree.proof(user.toString());
+    }
+
+    /**
+     *  分页遍历所有用户重建排行，任何人都可调用，返回下一页的游标，返回-1表示重建完成
+     *  排行中的用户退出较多时 topDepositors、topMiners 可能不足 RANKING_SIZE 条，重建后补足
+     *  从 cursor 为0开始，之后每次传入上次返回的游标；重建期间有用户抵押或退出时需从0重新开始
+     */
+    public int rebuildRankings(int cursor, int limit) {
+        checkPage(cursor, limit);
+        if (cursor == 0) {
+            rankingRebuildVersion = usersVersion;
+            depositRanking.beginRebuild();
+            miningRanking.beginRebuild();
+        } else {
+            require(cursor == rankingRebuildCursor && rankingRebuildVersion == usersVersion, "排行重建已失效，请从0开始");
+        }
+        int index = 0;
+        int end = cursor + limit;
+        for (Map.Entry<String, MiningInfo> entry : ledger.getUsers().entrySet()) {
+            if (index >= end) {
+                rankingRebuildCursor = end;
+                return end;
+            }
+            if (index >= cursor) {
+                MiningInfo info = entry.getValue();
+                depositRanking.update(entry.getKey(), info.getDepositAmount());
+                if (info.getTotalMining().compareTo(BigInteger.ZERO) > 0) {
+                    miningRanking.update(entry.getKey(), info.getTotalMining());
+                }
+            }
+            index++;
+        }
+        depositRanking.finishRebuild();
+        miningRanking.finishRebuild();
+        rankingRebuildCursor = 0;
+        return -1;
+    }
+
     /**
      *  用户挖矿信息
      */
     @View
     public MiningInfo user(Address user) {
-        MiningInfo miningInfo = getMiningInfo(user);
-        BigInteger thisMining = this.calcMining(miningInfo);
+        MiningInfo miningInfo = ledger.get(user);
+        BigInteger thisMining = schedule.calcMining(miningInfo, Block.number());
         miningInfo.setTotalMining(miningInfo.getTotalMining().add(thisMining));
         return miningInfo;
     }
 
+    /**
+     *  用户的奖励明细，从发放高度 fromHeight 开始，最多返回 limit 条，下一页从最后一条的 endHeight + 1 开始
+     *  明细按当前抵押金额计算，只包含最近一次抵押金额变更之后的周期，fromHeight 更早时从变更后的第一个周期开始
+     */
+    @View
+    public List<RewardStatement> rewardStatements(Address user, long fromHeight, int limit) {
+        require(limit > 0);
+        MiningInfo miningInfo = ledger.get(user);
+        RewardStatements statements = new RewardStatements(schedule, miningInfo, fromHeight, Block.number());
+        List<RewardStatement> result = new ArrayList<RewardStatement>();
+        while (result.size() < limit && statements.hasNext()) {
+            result.add(statements.next());
+        }
+        return result;
+    }
 
     /**
      *  当前价格
@@ -179,7 +379,7 @@ public class Pocm extends SimpleToken {
     @View
     public String currentPrice() {
         long currentHeight = Block.number();
-        BigDecimal currentPrice = this.calcPrice(currentHeight);
+        BigDecimal currentPrice = schedule.calcPrice(currentHeight);
         return currentPrice.toPlainString() + " " + name() + "/NULS";
     }
 
@@ -188,115 +388,140 @@ public class Pocm extends SimpleToken {
      */
     @View
     public String initialPrice() {
-        return initialPrice.toPlainString() + " " + name() + "/NULS";
+        return schedule.getInitialPrice().toPlainString() + " " + name() + "/NULS";
     }
 
     @View
     public long createHeight() {
-        return createHeight;
+        return schedule.getCreateHeight();
     }
 
     @View
     public int totalDepositAddressCount() {
-        return totalDepositAddressCount;
+        return ledger.getTotalDepositAddressCount();
     }
 
     @View
     public String totalDeposit() {
-        return toNuls(totalDeposit).toPlainString();
+        return toNuls(ledger.getTotalDeposit()).toPlainString();
+    }
+
+    @View
+    public PoolStats poolStats() {
+        return poolStats;
+    }
+
+    /**
+     *  累计奖励总额（已领取 + 未领取的累计奖励），是按区块线性累计的估算值，不是可领取金额，见 unclaimedAccruedMining
+     */
+    @View
+    public BigInteger totalAccruedMining() {
+        return totalReceivedMining.add(unclaimedAccruedMining());
+    }
+
+    /**
+     *  已领取的奖励总额
+     */
+    @View
+    public BigInteger totalReceivedMining() {
+        return totalReceivedMining;
+    }
+
+    /**
+     *  未领取的累计奖励，每个抵押按区块线性累计，不等于各用户可领取奖励之和：
+     *  1. 包含尚未满一个发放周期、还不能领取的部分，用户在周期中途退出时这部分作废，数值会随之减少
+     *  2. 按每个区块的价格累计，而实际发放按发放高度的价格计算，跨越减半高度的周期两者不同，结算后数值可能减少
+     */
+    @View
+    public BigInteger unclaimedAccruedMining() {
+        BigDecimal accumulated = toNuls(ledger.getTotalDeposit()).multiply(schedule.accumulatedPrice(Block.number()));
+        BigInteger pending = accumulated.subtract(settledPriceWeight).scaleByPowerOfTen(decimals()).toBigInteger()
+                .divide(BigInteger.valueOf(schedule.getAwardingCycle() + 1));
+        if (pending.compareTo(BigInteger.ZERO) < 0) {
+            return BigInteger.ZERO;
+        }
+        return pending;
+    }
+
+    /**
+     *  当前每个发放周期挖出的奖励总额
+     */
+    @View
+    public BigInteger currentEmissionPerCycle() {
+        BigDecimal currentPrice = schedule.calcPrice(Block.number());
+        return toNuls(ledger.getTotalDeposit()).multiply(currentPrice).scaleByPowerOfTen(decimals()).toBigInteger();
     }
 
     @View
     public long awardingCycle() {
-        return this.awardingCycle;
+        return schedule.getAwardingCycle();
     }
     @View
     public long rewardHalvingCycle() {
-        return this.rewardHalvingCycle;
+        return schedule.getRewardHalvingCycle();
     }
     @View
     public BigInteger minimumDeposit() {
-        return this.minimumDeposit;
+        return ledger.getMinimumDeposit();
     }
     @View
     public int minimumLocked() {
-        return this.minimumLocked;
+        return ledger.getMinimumLocked();
     }
     @View
     public int maximumDepositAddressCount() {
-        return this.maximumDepositAddressCount;
+        return ledger.getMaximumDepositAddressCount();
     }
 
-
-
-    private long checkLocked(MiningInfo miningInfo) {
-        long currentHeight = Block.number();
-        long depositHeight = miningInfo.getDepositHeight();
-        long unLockedHeight = depositHeight + minimumLocked + 1;
-        if(unLockedHeight > currentHeight) {
-            // 锁定中
-            return unLockedHeight;
-        }
-        // 已解锁
-        return -1;
+    /**
+     *  抵押金额排行，排行中的用户退出较多时可能不足 RANKING_SIZE 条，见 rebuildRankings
+     */
+    @View
+    public List<RankingItem> topDepositors() {
+        return depositRanking.getTop(RANKING_SIZE);
     }
 
-    private MiningInfo getMiningInfo(Address user) {
-        String userStr = user.toString();
-        MiningInfo miningInfo = users.get(userStr);
-        require(miningInfo != null, "此用户未参与");
-        return miningInfo;
+    /**
+     *  挖矿总额排行，排行中的用户退出较多时可能不足 RANKING_SIZE 条，见 rebuildRankings
+     */
+    @View
+    public List<RankingItem> topMiners() {
+        return miningRanking.getTop(RANKING_SIZE);
     }
 
-    private void receive(Address user, MiningInfo miningInfo) {
+
+
+    /**
+     *  结算用户奖励并发放到 to 地址，返回本次发放的奖励
+     */
+    private BigInteger receive(Address user, MiningInfo miningInfo, Address to) {
 
         // 奖励计算, 计算每次挖矿的高度是否已达到奖励减半周期的范围，若达到，则当次奖励减半，以此类推
-        BigInteger thisMining = this.calcMining(miningInfo);
+        int miningCount = miningInfo.getMiningCount();
+        long nextMiningHeight = miningInfo.getNextMiningHeight();
+        BigDecimal weight = schedule.settledWeight(miningInfo);
+        BigInteger thisMining = schedule.calcMining(miningInfo, Block.number());
+        int cycles = miningInfo.getMiningCount() - miningCount;
+        if (cycles != 0) {
+            settledPriceWeight = settledPriceWeight.subtract(weight).add(schedule.settledWeight(miningInfo));
+        }
+        poolStats.recordSettle(cycles);
+        totalReceivedMining = totalReceivedMining.add(thisMining);
 
         miningInfo.setTotalMining(miningInfo.getTotalMining().add(thisMining));
         miningInfo.setReceivedMining(miningInfo.getReceivedMining().add(thisMining));
+        uncommittedUsers.put(user.toString(), Boolean.TRUE);
 
         this.setTotalSupply(totalSupply().add(thisMining));
-
-        addBalance(user, thisMining);
-        emit(new TransferEvent(null, user, thisMining));
-    }
-
-    private BigInteger calcMining(MiningInfo miningInfo) {
-        BigInteger mining = BigInteger.ZERO;
-
-        long currentHeight = Block.number();
-        long nextMiningHeight = miningInfo.getNextMiningHeight();
-        long depositHeight = miningInfo.getDepositHeight();
-        BigDecimal depositAmountNULS = toNuls(miningInfo.getDepositAmount());
-        int miningCount = miningInfo.getMiningCount();
-        if(nextMiningHeight == 0) {
-            nextMiningHeight = depositHeight + awardingCycle + 1;
+        if (thisMining.compareTo(BigInteger.ZERO) > 0) {
+            miningRanking.update(user.toString(), miningInfo.getTotalMining());
         }
-        BigDecimal currentPrice;
-        int i = 0;
-        while (nextMiningHeight <= currentHeight) {
-            i++;
-            currentPrice = calcPrice(nextMiningHeight);
-            mining = mining.add(depositAmountNULS.multiply(currentPrice).scaleByPowerOfTen(decimals()).toBigInteger());
-            nextMiningHeight += awardingCycle + 1;
-        }
-        miningInfo.setMiningCount(miningCount + i);
-        miningInfo.setNextMiningHeight(nextMiningHeight);
-        return mining;
-    }
-
-    private BigDecimal calcPrice(long currentHeight) {
-        long triggerHeight = this.createHeight + this.rewardHalvingCycle + 1;
-        BigDecimal currentPrice = this.initialPrice;
-        BigDecimal d = null;
-        while(triggerHeight <= currentHeight) {
-            if(d == null) {
-                d = BigDecimal.valueOf(2L);
-            }
-            currentPrice = currentPrice.divide(d);
-            triggerHeight += this.rewardHalvingCycle + 1;
+
+        addBalance(to, thisMining);
+        emit(new TransferEvent(null, to, thisMining));
+        if (miningInfo.getNextMiningHeight() != nextMiningHeight) {
+            emit(new ReceiveEvent(user, to, thisMining, miningInfo));
         }
-        return currentPrice;
+        return thisMining;
     }
 }
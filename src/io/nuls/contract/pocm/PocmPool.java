@@ -0,0 +1,211 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.model.MiningInfo;
+import io.nuls.contract.ownership.Ownable;
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Block;
+import io.nuls.contract.sdk.Contract;
+import io.nuls.contract.sdk.Msg;
+import io.nuls.contract.sdk.annotation.Payable;
+import io.nuls.contract.sdk.annotation.Required;
+import io.nuls.contract.sdk.annotation.View;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static io.nuls.contract.sdk.Utils.emit;
+import static io.nuls.contract.sdk.Utils.require;
+import static io.nuls.contract.util.PocmUtil.checkMaximumDecimals;
+import static io.nuls.contract.util.PocmUtil.toNa;
+import static io.nuls.contract.util.PocmUtil.toNuls;
+
+/**
+ * 共享token的挖矿池，奖励通过 MintableToken 增发
+ * 多个挖矿池可使用同一个token，各自设置奖励发放周期、锁定区块和价格，需由token的owner授权增发
+ */
+public class PocmPool extends Ownable implements Contract {
+
+    // 奖励token合约地址
+    private Address token;
+    // 奖励token的名称
+    private String tokenName;
+    // 挖矿奖励计划（合约创建高度、初始价格、奖励发放周期、奖励减半周期）
+    private MiningSchedule schedule;
+    // 抵押账目（用户抵押信息、抵押总额、最低抵押、锁定区块、最大抵押地址数量）
+    private DepositLedger ledger;
+
+    public PocmPool(@Required Address token, BigDecimal price, int awardingCycle, int rewardHalvingCycle,
+                    BigDecimal minimumDepositNULS, int minimumLocked, int maximumDepositAddressCount) {
+        int decimals = Integer.parseInt(token.callWithReturnValue("decimals", null, null, BigInteger.ZERO));
+        // 检查 price 小数位不得大于decimals
+        require(checkMaximumDecimals(price, decimals), "最多" + decimals + "位小数");
+        this.token = token;
+        this.tokenName = token.callWithReturnValue("name", null, null, BigInteger.ZERO);
+        this.schedule = new MiningSchedule(Block.number(), price, awardingCycle, rewardHalvingCycle, decimals);
+        this.ledger = new DepositLedger(toNa(minimumDepositNULS), minimumLocked, maximumDepositAddressCount);
+    }
+
+    /**
+     *  抵押
+     */
+    @Payable
+    public MiningInfo deposit() {
+        return ledger.deposit(Msg.sender(), Msg.value(), Block.number());
+    }
+
+    /**
+     *  追加抵押
+     */
+    @Payable
+    public MiningInfo increaseDeposit() {
+        Address user = Msg.sender();
+        MiningInfo info = ledger.get(user);
+        this.receive(user, info);
+        ledger.increaseDeposit(user, info, Msg.value(), Block.number());
+        return info;
+    }
+
+    /**
+     *  退出
+     */
+    public MiningInfo quit() {
+        Address user = Msg.sender();
+        MiningInfo miningInfo = ledger.get(user);
+        ledger.checkUnlocked(miningInfo, Block.number());
+        // 发放奖励
+        this.receive(user, miningInfo);
+
+        ledger.refund(user, miningInfo);
+        return miningInfo;
+    }
+
+    /**
+     *  紧急退出，不结算奖励直接退还抵押，未领取的奖励作废
+     *  token 取消本挖矿池的增发授权或增发失败导致 quit 无法执行时，用户仍可通过此方法取回抵押
+     */
+    public MiningInfo emergencyQuit() {
+        Address user = Msg.sender();
+        MiningInfo miningInfo = ledger.get(user);
+        ledger.checkUnlocked(miningInfo, Block.number());
+
+        ledger.refund(user, miningInfo);
+        return miningInfo;
+    }
+
+    /**
+     *  领取奖励
+     */
+    public MiningInfo receive() {
+        Address user = Msg.sender();
+        MiningInfo miningInfo = ledger.get(user);
+        this.receive(user, miningInfo);
+        return miningInfo;
+    }
+
+    /**
+     *  用户挖矿信息
+     */
+    @View
+    public MiningInfo user(Address user) {
+        MiningInfo miningInfo = ledger.get(user);
+        BigInteger thisMining = schedule.calcMining(miningInfo, Block.number());
+        miningInfo.setTotalMining(miningInfo.getTotalMining().add(thisMining));
+        return miningInfo;
+    }
+
+    /**
+     *  当前价格
+     */
+    @View
+    public String currentPrice() {
+        return schedule.calcPrice(Block.number()).toPlainString() + " " + tokenName + "/NULS";
+    }
+
+    /**
+     *  初始价格
+     */
+    @View
+    public String initialPrice() {
+        return schedule.getInitialPrice().toPlainString() + " " + tokenName + "/NULS";
+    }
+
+    @View
+    public Address token() {
+        return token;
+    }
+
+    @View
+    public long createHeight() {
+        return schedule.getCreateHeight();
+    }
+
+    @View
+    public int totalDepositAddressCount() {
+        return ledger.getTotalDepositAddressCount();
+    }
+
+    @View
+    public String totalDeposit() {
+        return toNuls(ledger.getTotalDeposit()).toPlainString();
+    }
+
+    @View
+    public long awardingCycle() {
+        return schedule.getAwardingCycle();
+    }
+    @View
+    public long rewardHalvingCycle() {
+        return schedule.getRewardHalvingCycle();
+    }
+    @View
+    public BigInteger minimumDeposit() {
+        return ledger.getMinimumDeposit();
+    }
+    @View
+    public int minimumLocked() {
+        return ledger.getMinimumLocked();
+    }
+    @View
+    public int maximumDepositAddressCount() {
+        return ledger.getMaximumDepositAddressCount();
+    }
+
+    private void receive(Address user, MiningInfo miningInfo) {
+        long nextMiningHeight = miningInfo.getNextMiningHeight();
+        BigInteger thisMining = schedule.calcMining(miningInfo, Block.number());
+
+        miningInfo.setTotalMining(miningInfo.getTotalMining().add(thisMining));
+        miningInfo.setReceivedMining(miningInfo.getReceivedMining().add(thisMining));
+
+        if (thisMining.compareTo(BigInteger.ZERO) > 0) {
+            String[][] args = new String[][]{{user.toString()}, {thisMining.toString()}};
+            token.call("mint", null, args, BigInteger.ZERO);
+        }
+        if (miningInfo.getNextMiningHeight() != nextMiningHeight) {
+            emit(new ReceiveEvent(user, user, thisMining, miningInfo));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.model.MiningInfo;
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Event;
+
+import java.math.BigInteger;
+
+/**
+ * 结算挖矿奖励，挖矿信息有变化时发出，携带结算后的挖矿信息，索引服务无需再查询用户挖矿信息
+ */
+public class ReceiveEvent implements Event {
+
+    // 用户
+    private Address user;
+
+    // 奖励接收地址
+    private Address to;
+
+    // 本次发放的奖励
+    private BigInteger value;
+
+    // 总挖矿金额
+    private BigInteger totalMining;
+
+    // 已领取挖矿金额
+    private BigInteger receivedMining;
+
+    // 挖矿次数
+    private int miningCount;
+
+    // 下次挖矿高度
+    private long nextMiningHeight;
+
+    public ReceiveEvent(Address user, Address to, BigInteger value, MiningInfo miningInfo) {
+        this.user = user;
+        this.to = to;
+        this.value = value;
+        this.totalMining = miningInfo.getTotalMining();
+        this.receivedMining = miningInfo.getReceivedMining();
+        this.miningCount = miningInfo.getMiningCount();
+        this.nextMiningHeight = miningInfo.getNextMiningHeight();
+    }
+
+    public Address getUser() {
+        return user;
+    }
+
+    public void setUser(Address user) {
+        this.user = user;
+    }
+
+    public Address getTo() {
+        return to;
+    }
+
+    public void setTo(Address to) {
+        this.to = to;
+    }
+
+    public BigInteger getValue() {
+        return value;
+    }
+
+    public void setValue(BigInteger value) {
+        this.value = value;
+    }
+
+    public BigInteger getTotalMining() {
+        return totalMining;
+    }
+
+    public void setTotalMining(BigInteger totalMining) {
+        this.totalMining = totalMining;
+    }
+
+    public BigInteger getReceivedMining() {
+        return receivedMining;
+    }
+
+    public void setReceivedMining(BigInteger receivedMining) {
+        this.receivedMining = receivedMining;
+    }
+
+    public int getMiningCount() {
+        return miningCount;
+    }
+
+    public void setMiningCount(int miningCount) {
+        this.miningCount = miningCount;
+    }
+
+    public long getNextMiningHeight() {
+        return nextMiningHeight;
+    }
+
+    public void setNextMiningHeight(long nextMiningHeight) {
+        this.nextMiningHeight = nextMiningHeight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ReceiveEvent that = (ReceiveEvent) o;
+
+        if (miningCount != that.miningCount) return false;
+        if (nextMiningHeight != that.nextMiningHeight) return false;
+        if (user != null ? !user.equals(that.user) : that.user != null) return false;
+        if (to != null ? !to.equals(that.to) : that.to != null) return false;
+        if (value != null ? !value.equals(that.value) : that.value != null) return false;
+        if (totalMining != null ? !totalMining.equals(that.totalMining) : that.totalMining != null) return false;
+        return receivedMining != null ? receivedMining.equals(that.receivedMining) : that.receivedMining == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = user != null ? user.hashCode() : 0;
+        result = 31 * result + (to != null ? to.hashCode() : 0);
+        result = 31 * result + (value != null ? value.hashCode() : 0);
+        result = 31 * result + (totalMining != null ? totalMining.hashCode() : 0);
+        result = 31 * result + (receivedMining != null ? receivedMining.hashCode() : 0);
+        result = 31 * result + miningCount;
+        result = 31 * result + (int) (nextMiningHeight ^ (nextMiningHeight >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ReceiveEvent{" +
+                "user=" + user +
+                ", to=" + to +
+                ", value=" + value +
+                ", totalMining=" + totalMining +
+                ", receivedMining=" + receivedMining +
+                ", miningCount=" + miningCount +
+                ", nextMiningHeight=" + nextMiningHeight +
+                '}';
+    }
+}
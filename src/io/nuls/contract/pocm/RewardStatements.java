@@ -0,0 +1,94 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.pocm;
+
+import io.nuls.contract.model.MiningInfo;
+import io.nuls.contract.model.RewardStatement;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static io.nuls.contract.util.PocmUtil.toNuls;
+
+/**
+ * 按需逐条生成用户的奖励明细，每条对应一个减半周期内的连续发放周期，不缓存历史周期
+ */
+public class RewardStatements implements Iterator<RewardStatement> {
+
+    private final MiningSchedule schedule;
+    private final BigDecimal depositAmountNULS;
+    // 发放周期间隔的区块数
+    private final long interval;
+    // 截止高度（含）
+    private final long endHeight;
+    // 下一个待输出周期的发放高度
+    private long nextMiningHeight;
+
+    /**
+     *  生成发放高度在 [fromHeight, endHeight] 内的奖励明细
+     *  最近一次抵押金额变更之前的周期按变更前的金额发放，无法由当前抵押金额还原，因此从变更之后的第一个周期开始
+     */
+    public RewardStatements(MiningSchedule schedule, MiningInfo miningInfo, long fromHeight, long endHeight) {
+        this.schedule = schedule;
+        this.depositAmountNULS = toNuls(miningInfo.getDepositAmount());
+        this.interval = schedule.getAwardingCycle() + 1;
+        this.endHeight = endHeight;
+        long firstMiningHeight = miningInfo.getDepositHeight() + interval;
+        long depositChangeHeight = miningInfo.getDepositChangeHeight();
+        if (depositChangeHeight >= fromHeight) {
+            fromHeight = depositChangeHeight + 1;
+        }
+        if (fromHeight > firstMiningHeight) {
+            long skipped = (fromHeight - firstMiningHeight + interval - 1) / interval;
+            this.nextMiningHeight = firstMiningHeight + skipped * interval;
+        } else {
+            this.nextMiningHeight = firstMiningHeight;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextMiningHeight <= endHeight;
+    }
+
+    @Override
+    public RewardStatement next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        long lastHeight = schedule.nextHalvingHeight(nextMiningHeight) - 1;
+        if (lastHeight > endHeight) {
+            lastHeight = endHeight;
+        }
+        int cycles = (int) ((lastHeight - nextMiningHeight) / interval + 1);
+        BigDecimal price = schedule.calcPrice(nextMiningHeight);
+        BigInteger reward = depositAmountNULS.multiply(price).scaleByPowerOfTen(schedule.getDecimals()).toBigInteger()
+                .multiply(BigInteger.valueOf(cycles));
+        long startHeight = nextMiningHeight;
+        nextMiningHeight += cycles * interval;
+        return new RewardStatement(startHeight, nextMiningHeight - interval, cycles, price, reward);
+    }
+}
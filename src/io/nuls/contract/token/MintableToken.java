@@ -0,0 +1,62 @@
+package io.nuls.contract.token;
+
+import io.nuls.contract.sdk.Address;
+import io.nuls.contract.sdk.Msg;
+import io.nuls.contract.sdk.annotation.Required;
+import io.nuls.contract.sdk.annotation.View;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.nuls.contract.sdk.Utils.emit;
+import static io.nuls.contract.sdk.Utils.require;
+
+/**
+ * 可由多个已授权的挖矿池合约增发的token
+ */
+public class MintableToken extends SimpleToken {
+
+    /**
+     * 已授权增发的挖矿池合约
+     */
+    private Map<Address, Boolean> minters = new HashMap<Address, Boolean>();
+
+    public MintableToken(@Required String name, @Required String symbol, @Required BigInteger initialAmount, @Required int decimals, boolean importable) {
+        super(name, symbol, initialAmount, decimals, importable);
+    }
+
+    /**
+     * 授权挖矿池增发
+     */
+    public void addMinter(@Required Address minter) {
+        onlyOwner();
+        minters.put(minter, true);
+    }
+
+    /**
+     * 取消挖矿池的增发授权
+     * 取消后该挖矿池无法再发放奖励，其 quit、receive 将失败，用户只能通过挖矿池的 emergencyQuit 取回抵押并放弃未领取的奖励
+     */
+    public void removeMinter(@Required Address minter) {
+        onlyOwner();
+        minters.remove(minter);
+    }
+
+    @View
+    public boolean isMinter(@Required Address minter) {
+        return minters.containsKey(minter);
+    }
+
+    /**
+     * 增发，仅限已授权的挖矿池调用
+     */
+    public boolean mint(@Required Address to, @Required BigInteger value) {
+        require(minters.containsKey(Msg.sender()), "Only an authorized minter can mint.");
+        closeImportOnUse();
+        addBalance(to, value);
+        setTotalSupply(getTotalSupply().add(value));
+        emit(new TransferEvent(null, to, value));
+        return true;
+    }
+}
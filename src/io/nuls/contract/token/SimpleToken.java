@@ -1,5 +1,10 @@
 package io.nuls.contract.token;
 
+import io.nuls.contract.model.Balance;
+import io.nuls.contract.model.TokenStats;
+import io.nuls.contract.model.ExportPage;
+import io.nuls.contract.model.MerkleProof;
+import io.nuls.contract.model.MerkleTree;
 import io.nuls.contract.ownership.Ownable;
 import io.nuls.contract.sdk.Address;
 import io.nuls.contract.sdk.Contract;
@@ -8,7 +13,9 @@ import io.nuls.contract.sdk.annotation.Required;
 import io.nuls.contract.sdk.annotation.View;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static io.nuls.contract.sdk.Utils.emit;
@@ -16,14 +23,28 @@ import static io.nuls.contract.sdk.Utils.require;
 
 public class SimpleToken extends Ownable implements Contract, Token {
 
+    protected static final int MAX_EXPORT_LIMIT = 1000;
+
     private final String name;
     private final String symbol;
     private final int decimals;
     private BigInteger totalSupply = BigInteger.ZERO;
 
-    private Map<Address, BigInteger> balances = new HashMap<Address, BigInteger>();
+    private Map<Address, Balance> balances = new HashMap<Address, Balance>();
     private Map<Address, Map<Address, BigInteger>> allowed = new HashMap<Address, Map<Address, BigInteger>>();
 
+    private MerkleTree balanceTree = new MerkleTree();
+    // 余额已变更、尚未提交到默克尔树的地址
+    private Map<Address, Boolean> uncommittedBalances = new HashMap<Address, Boolean>();
+
+    // token 调用统计
+    private TokenStats tokenStats = new TokenStats();
+
+    // 是否已关闭导入，部署时未开启导入或合约开始对外使用后关闭，关闭后不可再次开启
+    private boolean importClosed;
+    // 已导入余额的地址，每个地址只能导入一次
+    private Map<Address, Boolean> importedBalances = new HashMap<Address, Boolean>();
+
     @Override
     @View
     public String name() {
@@ -48,12 +69,17 @@ public class SimpleToken extends Ownable implements Contract, Token {
         return totalSupply;
     }
 
-    public SimpleToken(@Required String name, @Required String symbol, @Required BigInteger initialAmount, @Required int decimals) {
+    /**
+     * importable 为 true 时开启导入，用于从旧合约迁移，否则部署后即不可导入
+     */
+    public SimpleToken(@Required String name, @Required String symbol, @Required BigInteger initialAmount, @Required int decimals, boolean importable) {
         this.name = name;
         this.symbol = symbol;
         this.decimals = decimals;
+        this.importClosed = !importable;
         totalSupply = initialAmount.multiply(BigInteger.TEN.pow(decimals));;
-        balances.put(Msg.sender(), totalSupply);
+        balances.put(Msg.sender(), new Balance(totalSupply));
+        uncommittedBalances.put(Msg.sender(), Boolean.TRUE);
         emit(new TransferEvent(null, Msg.sender(), totalSupply));
     }
 
@@ -73,9 +99,11 @@ public class SimpleToken extends Ownable implements Contract, Token {
 
     @Override
     public boolean transferFrom(@Required Address from, @Required Address to, @Required BigInteger value) {
+        closeImportOnUse();
         subtractAllowed(from, Msg.sender(), value);
         subtractBalance(from, value);
         addBalance(to, value);
+        tokenStats.increaseTransferFromCount();
         emit(new TransferEvent(from, to, value));
         return true;
     }
@@ -84,35 +112,42 @@ public class SimpleToken extends Ownable implements Contract, Token {
     @View
     public BigInteger balanceOf(@Required Address owner) {
         require(owner != null);
-        BigInteger balance = balances.get(owner);
+        Balance balance = balances.get(owner);
         if (balance == null) {
-            balance = BigInteger.ZERO;
+            return BigInteger.ZERO;
         }
-        return balance;
+        return balance.toBigInteger();
     }
 
     @Override
     public boolean transfer(@Required Address to, @Required BigInteger value) {
+        closeImportOnUse();
         subtractBalance(Msg.sender(), value);
         addBalance(to, value);
+        tokenStats.increaseTransferCount();
         emit(new TransferEvent(Msg.sender(), to, value));
         return true;
     }
 
     @Override
     public boolean approve(@Required Address spender, @Required BigInteger value) {
+        closeImportOnUse();
         setAllowed(Msg.sender(), spender, value);
+        tokenStats.increaseApproveCount();
         emit(new ApprovalEvent(Msg.sender(), spender, value));
         return true;
     }
 
     public boolean increaseApproval(@Required Address spender, @Required BigInteger addedValue) {
+        closeImportOnUse();
         addAllowed(Msg.sender(), spender, addedValue);
+        tokenStats.increaseIncreaseApprovalCount();
         emit(new ApprovalEvent(Msg.sender(), spender, allowance(Msg.sender(), spender)));
         return true;
     }
 
     public boolean decreaseApproval(@Required Address spender, @Required BigInteger subtractedValue) {
+        closeImportOnUse();
         check(subtractedValue);
         BigInteger oldValue = allowance(Msg.sender(), spender);
         if (subtractedValue.compareTo(oldValue) > 0) {
@@ -120,11 +155,12 @@ public class SimpleToken extends Ownable implements Contract, Token {
         } else {
             subtractAllowed(Msg.sender(), spender, subtractedValue);
         }
+        tokenStats.increaseDecreaseApprovalCount();
         emit(new ApprovalEvent(Msg.sender(), spender, allowance(Msg.sender(), spender)));
         return true;
     }
 
-    private void addAllowed(Address address1, Address address2, BigInteger value) {
+    protected void addAllowed(Address address1, Address address2, BigInteger value) {
         BigInteger allowance = allowance(address1, address2);
         check(allowance);
         check(value);
@@ -148,16 +184,32 @@ public class SimpleToken extends Ownable implements Contract, Token {
     }
 
     protected void addBalance(Address address, BigInteger value) {
-        BigInteger balance = balanceOf(address);
         check(value, "The value must be greater than or equal to 0.");
-        check(balance);
-        balances.put(address, balance.add(value));
+        if (value.compareTo(BigInteger.ZERO) == 0) {
+            return;
+        }
+        Balance balance = balances.get(address);
+        if (balance == null) {
+            balance = new Balance();
+            balances.put(address, balance);
+        }
+        balance.add(value);
+        uncommittedBalances.put(address, Boolean.TRUE);
     }
 
-    private void subtractBalance(Address address, BigInteger value) {
-        BigInteger balance = balanceOf(address);
-        check(balance, value, "Insufficient balance of token.");
-        balances.put(address, balance.subtract(value));
+    protected void subtractBalance(Address address, BigInteger value) {
+        check(value);
+        Balance balance = balances.get(address);
+        if (balance == null) {
+            require(value.compareTo(BigInteger.ZERO) == 0, "Insufficient balance of token.");
+            return;
+        }
+        require(balance.compareTo(value) >= 0, "Insufficient balance of token.");
+        if (value.compareTo(BigInteger.ZERO) == 0) {
+            return;
+        }
+        balance.subtract(value);
+        uncommittedBalances.put(address, Boolean.TRUE);
     }
 
     private void check(BigInteger value) {
@@ -180,6 +232,179 @@ public class SimpleToken extends Ownable implements Contract, Token {
         require(value1.compareTo(value2) >= 0, msg);
     }
 
+    /**
+     * 分页导出余额，记录格式为 address,balance
+     */
+    @View
+    public ExportPage exportBalances(int cursor, int limit) {
+        checkPage(cursor, limit);
+        StringBuilder records = new StringBuilder();
+        int index = 0;
+        int end = cursor + limit;
+        for (Map.Entry<Address, Balance> entry : balances.entrySet()) {
+            if (index >= end) {
+                return new ExportPage(end, records.toString());
+            }
+            if (index >= cursor) {
+                if (records.length() > 0) {
+                    records.append(';');
+                }
+                records.append(entry.getKey().toString()).append(',').append(entry.getValue().toBigInteger());
+            }
+            index++;
+        }
+        return new ExportPage(-1, records.toString());
+    }
+
+    /**
+     * 分页导出授权额度，游标按授权人计数，记录格式为 owner,spender,value
+     */
+    @View
+    public ExportPage exportAllowances(int cursor, int limit) {
+        checkPage(cursor, limit);
+        StringBuilder records = new StringBuilder();
+        int index = 0;
+        int end = cursor + limit;
+        for (Map.Entry<Address, Map<Address, BigInteger>> entry : allowed.entrySet()) {
+            if (index >= end) {
+                return new ExportPage(end, records.toString());
+            }
+            if (index >= cursor) {
+                String owner = entry.getKey().toString();
+                for (Map.Entry<Address, BigInteger> spenderEntry : entry.getValue().entrySet()) {
+                    if (records.length() > 0) {
+                        records.append(';');
+                    }
+                    records.append(owner).append(',').append(spenderEntry.getKey().toString())
+                            .append(',').append(spenderEntry.getValue());
+                }
+            }
+            index++;
+        }
+        return new ExportPage(-1, records.toString());
+    }
+
+    /**
+     * 批量导入余额，导入的余额计入总发行量，已有余额或已导入过的地址不可导入
+     */
+    public void importBalances(@Required String records) {
+        onlyImportable();
+        String[] items = records.split(";");
+        for (String item : items) {
+            String[] fields = item.split(",");
+            require(fields.length == 2, "Invalid balance record.");
+            Address address = new Address(fields[0]);
+            BigInteger value = new BigInteger(fields[1]);
+            require(!importedBalances.containsKey(address), "Balance already imported.");
+            require(balanceOf(address).compareTo(BigInteger.ZERO) == 0, "Balance already exists.");
+            importedBalances.put(address, Boolean.TRUE);
+            addBalance(address, value);
+            totalSupply = totalSupply.add(value);
+            emit(new TransferEvent(null, address, value));
+        }
+    }
+
+    /**
+     * 批量导入授权额度
+     */
+    public void importAllowances(@Required String records) {
+        onlyImportable();
+        String[] items = records.split(";");
+        for (String item : items) {
+            String[] fields = item.split(",");
+            require(fields.length == 3, "Invalid allowance record.");
+            Address owner = new Address(fields[0]);
+            Address spender = new Address(fields[1]);
+            BigInteger value = new BigInteger(fields[2]);
+            setAllowed(owner, spender, value);
+            emit(new ApprovalEvent(owner, spender, value));
+        }
+    }
+
+    /**
+     * 关闭导入，关闭后不可再次开启
+     */
+    public void closeImport() {
+        onlyOwner();
+        importClosed = true;
+    }
+
+    @View
+    public boolean importClosed() {
+        return importClosed;
+    }
+
+    protected void checkPage(int cursor, int limit) {
+        require(cursor >= 0 && limit > 0 && limit <= MAX_EXPORT_LIMIT && cursor <= Integer.MAX_VALUE - limit,
+                "Invalid cursor or limit.");
+    }
+
+    protected void onlyImportable() {
+        onlyOwner();
+        require(!importClosed, "Import has been closed.");
+    }
+
+    /**
+     * 合约开始对外使用（转账、授权、抵押、增发等）时永久关闭导入，导入须在此之前完成
+     */
+    protected void closeImportOnUse() {
+        if (!importClosed) {
+            importClosed = true;
+        }
+    }
+
+    /**
+     * 将已变更的余额提交到默克尔树，每次最多提交 limit 个地址，任何人都可调用，返回剩余未提交的地址数量
+     * 余额为0的地址从树中移除；转账只记录变更的地址，哈希计算集中在此方法中
+     */
+    public int commitBalances(int limit) {
+        require(limit > 0);
+        List<Address> addresses = new ArrayList<Address>();
+        for (Address address : uncommittedBalances.keySet()) {
+            if (addresses.size() >= limit) {
+                break;
+            }
+            addresses.add(address);
+        }
+        for (Address address : addresses) {
+            uncommittedBalances.remove(address);
+            Balance balance = balances.get(address);
+            String value = null;
+            if (balance != null && balance.compareTo(BigInteger.ZERO) > 0) {
+                value = balance.toBigInteger().toString();
+            }
+            balanceTree.update(address.toString(), value);
+        }
+        return uncommittedBalances.size();
+    }
+
+    @View
+    public int uncommittedBalanceCount() {
+        return uncommittedBalances.size();
+    }
+
+    /**
+     * 已提交余额的默克尔树根，叶子为 sha3(address + "," + balance)
+     * uncommittedBalanceCount() 为0时与当前余额一致
+     */
+    @View
+    public String balancesRoot() {
+        return balanceTree.getRoot();
+    }
+
+    /**
+     * 已提交余额的默克尔包含证明，value 为提交时的余额，地址不在树中时返回null
+     */
+    @View
+    public MerkleProof balanceProof(@Required Address owner) {
+        return balanceTree.proof(owner.toString());
+    }
+
+    @View
+    public TokenStats stats() {
+        return tokenStats;
+    }
+
     protected BigInteger getTotalSupply() {
         return totalSupply;
     }
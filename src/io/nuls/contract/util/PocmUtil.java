@@ -23,6 +23,8 @@
  */
 package io.nuls.contract.util;
 
+import io.nuls.contract.model.MiningInfo;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
@@ -39,4 +41,40 @@ public class PocmUtil {
         return nuls.scaleByPowerOfTen(8).toBigInteger();
     }
 
+    /**
+     * 检查 price 小数位不得大于 decimals
+     */
+    public static boolean checkMaximumDecimals(BigDecimal price, int decimals) {
+        BigInteger a = price.movePointRight(decimals).toBigInteger().multiply(BigInteger.TEN);
+        BigInteger b = price.movePointRight(decimals + 1).toBigInteger();
+        if(a.compareTo(b) != 0) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 编码挖矿信息，字段依次为 depositAmount,depositHeight,totalMining,receivedMining,miningCount,nextMiningHeight,depositChangeHeight
+     */
+    public static String encodeMiningInfo(MiningInfo info) {
+        return info.getDepositAmount() + "," + info.getDepositHeight() + "," + info.getTotalMining() + ","
+                + info.getReceivedMining() + "," + info.getMiningCount() + "," + info.getNextMiningHeight() + ","
+                + info.getDepositChangeHeight();
+    }
+
+    /**
+     * 从 fields[offset] 开始解码挖矿信息
+     */
+    public static MiningInfo decodeMiningInfo(String[] fields, int offset) {
+        MiningInfo info = new MiningInfo();
+        info.setDepositAmount(new BigInteger(fields[offset]));
+        info.setDepositHeight(Long.parseLong(fields[offset + 1]));
+        info.setTotalMining(new BigInteger(fields[offset + 2]));
+        info.setReceivedMining(new BigInteger(fields[offset + 3]));
+        info.setMiningCount(Integer.parseInt(fields[offset + 4]));
+        info.setNextMiningHeight(Long.parseLong(fields[offset + 5]));
+        info.setDepositChangeHeight(Long.parseLong(fields[offset + 6]));
+        return info;
+    }
+
 }